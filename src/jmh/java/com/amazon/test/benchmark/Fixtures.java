@@ -0,0 +1,52 @@
+package com.amazon.test.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class providing access to the page fixtures used by the benchmarks.
+ */
+public class Fixtures {
+    private static final String FIXTURES_DIRECTORY = "fixtures/";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Reads a fixture file from the classpath.
+     *
+     * @param fileName name of fixture file
+     * @return content of fixture file
+     * @throws UncheckedIOException if fixture file cannot be read
+     */
+    public static String read(String fileName) {
+        try (InputStream inputStream = Fixtures.class.getClassLoader().getResourceAsStream(FIXTURES_DIRECTORY + fileName)) {
+            if (inputStream == null) throw new IOException("Fixture not found : " + fileName);
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Reads the lines of a fixture file from the classpath.
+     *
+     * @param fileName name of fixture file
+     * @return lines of fixture file
+     * @throws UncheckedIOException if fixture file cannot be read
+     */
+    public static List<String> readLines(String fileName) {
+        return Arrays.asList(read(fileName).split("\\r?\\n"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.amazon.test.util;
+
+import org.apache.log4j.AsyncAppender;
+import org.apache.log4j.FileAppender;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the logging overhead of one step on the scenario thread : the 'Step definition - ...' message with its
+ * argument and the 'STEP OK' message. Messages are built by concatenation, as the step definitions used to do,
+ * or with {@link Log}, and written with the previous synchronous file appender configuration ('sync'), the
+ * asynchronous configuration of log4j.xml ('async') or with DEBUG disabled ('off').
+ * <p>
+ * Every benchmark simulates the work of a step between its messages, as a scenario thread does not log in a tight
+ * loop, which would only measure how fast the log file is written. The logging overhead of a step is the score of
+ * a benchmark minus the score of {@link LoggingBenchmark#stepWithoutLogging()}.
+ * Run with JMH option '-t 4' to measure the overhead under parallel scenarios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS}\t%p\t%r\t---\t[%t]\t%c\t:\t%m%n";
+    // Simulated work of a step, about 50 microseconds
+    private static final long STEP_WORK_TOKENS = 20_000;
+    private static final String[] KEYWORDS = {"Harry Potter", "Wrist Watch", "Running Shoes", "Coffee Mug"};
+
+    @Param({"sync", "async", "off"})
+    public String mode;
+
+    private final AtomicInteger stepCount = new AtomicInteger();
+    private Logger logger;
+    private File logFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = File.createTempFile("logging-benchmark", ".log");
+        logger = Logger.getLogger(LoggingBenchmark.class.getCanonicalName() + "." + mode);
+        logger.removeAllAppenders();
+        logger.setAdditivity(false);
+        logger.setLevel("off".equals(mode) ? Level.INFO : Level.DEBUG);
+        boolean async = "async".equals(mode);
+        FileAppender fileAppender = new FileAppender(new PatternLayout(PATTERN), logFile.getPath(), false, async, 8192);
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setBufferSize(1024);
+            asyncAppender.setBlocking(true);
+            asyncAppender.addAppender(fileAppender);
+            logger.addAppender(asyncAppender);
+        } else {
+            logger.addAppender(fileAppender);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        logger.removeAllAppenders();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public String stepWithoutLogging() {
+        String searchKeyword = KEYWORDS[stepCount.getAndIncrement() & 3];
+        Blackhole.consumeCPU(STEP_WORK_TOKENS);
+        return searchKeyword;
+    }
+
+    @Benchmark
+    public void concatenatedStepLog() {
+        String searchKeyword = KEYWORDS[stepCount.getAndIncrement() & 3];
+        logger.debug("Step definition - user enters " + searchKeyword + " in search box");
+        Blackhole.consumeCPU(STEP_WORK_TOKENS);
+        logger.debug("STEP OK");
+    }
+
+    @Benchmark
+    public void parameterizedStepLog() {
+        String searchKeyword = KEYWORDS[stepCount.getAndIncrement() & 3];
+        Log.debug(logger, "Step definition - user enters {} in search box", searchKeyword);
+        Blackhole.consumeCPU(STEP_WORK_TOKENS);
+        logger.debug("STEP OK");
+    }
+}
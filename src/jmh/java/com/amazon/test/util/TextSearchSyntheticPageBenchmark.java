@@ -0,0 +1,53 @@
+package com.amazon.test.util;
+
+import com.amazon.test.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares case insensitive search of a home page text, as done by the 'user is (not) signed in' steps, by lower
+ * casing the text against {@link TextSearch#containsIgnoreCase(String, String)}.
+ * The text is synthetic, of the size and structure of the Amazon home page text but not captured from the live page,
+ * so the effect of the first character filter of {@link TextSearch} on real content is not measured.
+ * Run with the 'gc' profiler to see the allocations per search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextSearchSyntheticPageBenchmark {
+
+    // Found in the header, found in the footer and not found
+    @Param({"Hello, sign in", "new customer? start here", "your orders"})
+    public String textToFind;
+
+    private String pageContent;
+
+    @Setup
+    public void setUp() {
+        pageContent = Fixtures.read("synthetic-home-page.txt");
+    }
+
+    @Benchmark
+    public boolean lowerCaseContains() {
+        return pageContent.toLowerCase().contains(textToFind.toLowerCase());
+    }
+
+    @Benchmark
+    public boolean containsIgnoreCase() {
+        return TextSearch.containsIgnoreCase(pageContent, textToFind);
+    }
+}
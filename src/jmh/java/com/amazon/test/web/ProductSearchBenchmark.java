@@ -0,0 +1,49 @@
+package com.amazon.test.web;
+
+import com.amazon.test.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * Benchmarks matching of the search results summary pattern against a synthetic search results page text
+ * and a synthetic home page text, which has no search results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+    private String searchResultsContent;
+    private String homeContent;
+
+    @Setup
+    public void setUp() {
+        searchResultsContent = Fixtures.read("synthetic-search-results.txt");
+        homeContent = Fixtures.read("synthetic-home-page.txt");
+    }
+
+    @Benchmark
+    public String matchResultsCount() {
+        Matcher matcher = ProductSearch.PATTERN_RESULTS_COUNT.matcher(searchResultsContent);
+        return matcher.find() ? matcher.group(2) : null;
+    }
+
+    @Benchmark
+    public String matchNoResults() {
+        Matcher matcher = ProductSearch.PATTERN_RESULTS_COUNT.matcher(homeContent);
+        return matcher.find() ? matcher.group(2) : null;
+    }
+}
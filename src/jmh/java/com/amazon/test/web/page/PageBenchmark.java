@@ -0,0 +1,95 @@
+package com.amazon.test.web.page;
+
+import com.amazon.test.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.MalformedURLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building of page URLs and parsing of sample URLs written after the URLs visited by the scenarios.
+ * Each parsing benchmark operation parses all sample URLs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageBenchmark {
+    private static final String HOME_URL = "https://www.amazon.in/";
+
+    private HashMap<String, String> queryParameters;
+    private String[] sampleUrls;
+    private Page[] samplePages;
+
+    @Setup
+    public void setUp() {
+        queryParameters = new HashMap<>();
+        queryParameters.put("k", "laptop");
+        queryParameters.put("ref", "nb_sb_noss");
+        List<String> urls = Fixtures.readLines("sample-urls.txt");
+        sampleUrls = urls.toArray(new String[0]);
+        samplePages = new Page[urls.size()];
+        for (int i = 0; i < urls.size(); i++) {
+            samplePages[i] = new Page(urls.get(i));
+        }
+    }
+
+    @Benchmark
+    public Page makeHomePage() throws MalformedURLException {
+        return Page.make(HOME_URL, PageType.Home, null);
+    }
+
+    @Benchmark
+    public Page makeSignInPageWithQuery() throws MalformedURLException {
+        return Page.make(HOME_URL, PageType.SignIn, queryParameters);
+    }
+
+    @Benchmark
+    public void getQueryParameter(Blackhole blackhole) {
+        for (Page page : samplePages) {
+            blackhole.consume(page.getQueryParameter("k"));
+        }
+    }
+
+    @Benchmark
+    public void getPathSegment(Blackhole blackhole) {
+        for (Page page : samplePages) {
+            blackhole.consume(page.getPathSegment());
+        }
+    }
+
+    @Benchmark
+    public void getBaseUrl(Blackhole blackhole) {
+        for (Page page : samplePages) {
+            blackhole.consume(page.getBaseUrl());
+        }
+    }
+
+    /**
+     * Work done by the 'browser redirects to' step for each sample URL - comparing base URL and path of the
+     * expected page with the current page.
+     */
+    @Benchmark
+    public void redirectCheckStep(Blackhole blackhole) throws MalformedURLException {
+        for (String url : sampleUrls) {
+            Page expectedPage = Page.make(HOME_URL, PageType.Home, null);
+            Page currentPage = new Page(url);
+            blackhole.consume(expectedPage.getPageUrl().hasSameBaseUrl(currentPage.getPageUrl()));
+            blackhole.consume(expectedPage.getPathSegment().equals(currentPage.getPathSegment()));
+        }
+    }
+}
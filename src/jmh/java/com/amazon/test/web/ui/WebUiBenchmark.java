@@ -0,0 +1,77 @@
+package com.amazon.test.web.ui;
+
+import com.amazon.test.benchmark.Fixtures;
+import com.amazon.test.util.Field;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the JVM side work of the web ui components - button label normalization of sample button labels
+ * written after the labels of the pages and rendering of the text box and select box selectors and locators for the field ids used by the scenarios.
+ * Each benchmark operation processes all sample labels or field ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebUiBenchmark {
+    // Ids of the search box fields of ProductSearch
+    private static final String ID_SEARCH_FIELD = "twotabsearchtextbox";
+    private static final String ID_CATEGORY_SELECT = "searchDropdownBox";
+
+    private String[] buttonLabels;
+    private WebTextBox[] textBoxes;
+    private WebSelectBox selectBox;
+
+    @Setup
+    public void setUp() {
+        List<String> labels = Fixtures.readLines("sample-button-labels.txt");
+        buttonLabels = labels.toArray(new String[0]);
+        textBoxes = new WebTextBox[]{
+                new WebTextBox(ID_SEARCH_FIELD),
+                new WebTextBox(Field.EmailPhoneField.getId()),
+                new WebTextBox(Field.PasswordField.getId())
+        };
+        selectBox = new WebSelectBox(ID_CATEGORY_SELECT);
+    }
+
+    @Benchmark
+    public void getAlphaLabel(Blackhole blackhole) {
+        for (String label : buttonLabels) {
+            blackhole.consume(WebButton.getAlphaLabel(label));
+        }
+    }
+
+    @Benchmark
+    public void textBoxSelector(Blackhole blackhole) {
+        for (WebTextBox textBox : textBoxes) {
+            blackhole.consume(textBox.getSelector());
+        }
+    }
+
+    @Benchmark
+    public String selectBoxSelector() {
+        return selectBox.getSelector();
+    }
+
+    @Benchmark
+    public void textBoxLocator(Blackhole blackhole) {
+        for (WebTextBox textBox : textBoxes) {
+            blackhole.consume(textBox.getLocator());
+        }
+    }
+}
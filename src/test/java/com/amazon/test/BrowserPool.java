@@ -0,0 +1,255 @@
+package com.amazon.test;
+
+import com.amazon.test.util.Log;
+import com.amazon.test.web.LocatorCache;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Pool of warm {@link BrowserSession}s shared by the scenarios.
+ * Starting a browser is the most expensive operation of a scenario, so instead of starting and quitting a browser
+ * for every scenario, sessions are leased from this pool and returned to it after the scenario.
+ * Returned sessions are reset before they are leased again and are recycled after a configured number of uses
+ * or when they stop responding.
+ * Sessions can be started and warmed up in the background before the first scenarios lease them.
+ */
+public class BrowserPool {
+    private static final Logger logger = Logger.getLogger(BrowserPool.class.getCanonicalName());
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Supplier<WebDriver> driverFactory;
+    private final int maxSize;
+    private final int maxUses;
+    private final long leaseTimeoutMillis;
+
+    private final LinkedBlockingQueue<BrowserSession> idleSessions = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<BrowserSession> allSessions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    // Warmed up sessions not leased yet, with the time their warm-up saves to the first scenario leasing them
+    private final ConcurrentHashMap<BrowserSession, Long> warmSessionSavings = new ConcurrentHashMap<>();
+
+    // Pool statistics
+    private final AtomicLong leaseCount = new AtomicLong();
+    private final AtomicLong totalLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong resetCount = new AtomicLong();
+    private final AtomicLong totalResetNanos = new AtomicLong();
+    private final AtomicLong maxResetNanos = new AtomicLong();
+    private final AtomicLong recycleCount = new AtomicLong();
+    private final AtomicLong locatorCacheHits = new AtomicLong();
+    private final AtomicLong locatorCacheMisses = new AtomicLong();
+    private final AtomicLong warmLeaseCount = new AtomicLong();
+    private final AtomicLong warmUpSavedNanos = new AtomicLong();
+
+    /**
+     * Constructs a {@link BrowserPool}.
+     *
+     * @param driverFactory      factory starting a new browser
+     * @param maxSize            maximum number of browsers started at a time
+     * @param maxUses            number of leases after which a session is recycled
+     * @param leaseTimeoutMillis maximum time to wait for a free session
+     */
+    public BrowserPool(Supplier<WebDriver> driverFactory, int maxSize, int maxUses, long leaseTimeoutMillis) {
+        if (maxSize < 1) throw new IllegalArgumentException("Browser pool size must be at least 1 : " + maxSize);
+        if (maxUses < 1) throw new IllegalArgumentException("Browser session uses must be at least 1 : " + maxUses);
+        this.driverFactory = driverFactory;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+    }
+
+    /**
+     * Leases a session from the pool.
+     * An idle session is returned when available, otherwise a new browser is started if the pool is not full,
+     * otherwise the call waits for a session to be released.
+     *
+     * @return leased {@link BrowserSession}
+     * @throws IllegalStateException if no session becomes available within the lease timeout
+     */
+    public BrowserSession lease() {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMillis);
+        BrowserSession session = idleSessions.poll();
+        while (session == null) {
+            session = startSessionIfBelowMaxSize();
+            if (session != null) break;
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                throw new IllegalStateException("No browser session available within " + leaseTimeoutMillis + " ms");
+            }
+            try {
+                // Wake up periodically as a recycled session frees a slot without being offered to the idle queue
+                session = idleSessions.poll(Math.min(remainingNanos, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", exception);
+            }
+        }
+        session.markUsed();
+        long waitNanos = System.nanoTime() - startNanos;
+        leaseCount.incrementAndGet();
+        record(totalLeaseWaitNanos, maxLeaseWaitNanos, waitNanos);
+        Long warmUpNanos = warmSessionSavings.remove(session);
+        if (warmUpNanos != null) {
+            // Waiting for a session still warming up reduces the time saved
+            warmLeaseCount.incrementAndGet();
+            warmUpSavedNanos.addAndGet(warmUpNanos - waitNanos);
+        }
+        Log.debug(logger, "Leased browser session (use {}) after waiting {} ms", session.getUseCount(), toMillis(waitNanos));
+        return session;
+    }
+
+    /**
+     * Starts sessions in background threads, so that the first scenarios lease warm sessions instead of starting
+     * browsers. Each session is started, warmed up by the given action and offered to the idle sessions.
+     * Sessions are not started beyond the pool size.
+     *
+     * @param count  number of sessions to start
+     * @param warmUp action warming up a started session, returning the time it saves to the first scenario using
+     *               the session in nanoseconds, e.g. the difference between a cold and a warm page load
+     */
+    public void prewarm(int count, ToLongFunction<BrowserSession> warmUp) {
+        for (int i = 0; i < Math.min(count, maxSize); i++) {
+            Thread thread = new Thread(() -> warmUpSession(warmUp), "browser-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns a leased session to the pool.
+     * The session is reset for the next lease, or recycled if it is worn out or unhealthy.
+     *
+     * @param session {@link BrowserSession} to return
+     */
+    public void release(BrowserSession session) {
+        LocatorCache locatorCache = session.getLocatorCache();
+        locatorCacheHits.addAndGet(locatorCache.getHitCount());
+        locatorCacheMisses.addAndGet(locatorCache.getMissCount());
+        locatorCache.resetCounters();
+        if (session.isHealthy() && session.getUseCount() < maxUses) {
+            long startNanos = System.nanoTime();
+            session.reset();
+            long resetNanos = System.nanoTime() - startNanos;
+            resetCount.incrementAndGet();
+            record(totalResetNanos, maxResetNanos, resetNanos);
+            Log.debug(logger, "Reset browser session in {} ms", toMillis(resetNanos));
+        }
+        if (session.isHealthy() && session.getUseCount() < maxUses) {
+            idleSessions.offer(session);
+        } else {
+            Log.debug(logger, "Recycling browser session after {} uses, healthy - {}", session.getUseCount(), session.isHealthy());
+            recycleCount.incrementAndGet();
+            discard(session);
+        }
+    }
+
+    /**
+     * Quits all the browsers of the pool and logs the pool statistics.
+     */
+    public void shutdown() {
+        BrowserSession session;
+        while ((session = allSessions.poll()) != null) {
+            session.quit();
+        }
+        idleSessions.clear();
+        warmSessionSavings.clear();
+        sessionCount.set(0);
+        logger.info(getStatistics());
+    }
+
+    /**
+     * Get a summary of lease wait and reset times and locator cache usage of the pool.
+     *
+     * @return statistics summary
+     */
+    public String getStatistics() {
+        long leases = leaseCount.get();
+        long resets = resetCount.get();
+        return "BrowserPool statistics - leases : " + leases
+                + ", avg lease wait : " + (leases == 0 ? 0 : toMillis(totalLeaseWaitNanos.get() / leases)) + " ms"
+                + ", max lease wait : " + toMillis(maxLeaseWaitNanos.get()) + " ms"
+                + ", resets : " + resets
+                + ", avg reset : " + (resets == 0 ? 0 : toMillis(totalResetNanos.get() / resets)) + " ms"
+                + ", max reset : " + toMillis(maxResetNanos.get()) + " ms"
+                + ", recycled sessions : " + recycleCount.get()
+                + ", locator cache hits : " + locatorCacheHits.get()
+                + ", locator cache misses : " + locatorCacheMisses.get()
+                + ", warm sessions leased : " + warmLeaseCount.get()
+                + ", warm-up time saved : " + toMillis(warmUpSavedNanos.get()) + " ms";
+    }
+
+    private void warmUpSession(ToLongFunction<BrowserSession> warmUp) {
+        long startNanos = System.nanoTime();
+        BrowserSession session;
+        try {
+            session = startSessionIfBelowMaxSize();
+        } catch (RuntimeException exception) {
+            Log.warn(logger, "Browser warm-up failed to start a session : {}", exception.getMessage());
+            return;
+        }
+        // Pool already full
+        if (session == null) return;
+        // Starting the browser is saved to the scenario as well as what the warm-up action saves
+        long savedNanos = System.nanoTime() - startNanos;
+        try {
+            savedNanos += warmUp.applyAsLong(session);
+        } catch (RuntimeException exception) {
+            Log.warn(logger, "Browser warm-up failed : {}", exception.getMessage());
+        }
+        if (!session.isHealthy()) {
+            discard(session);
+            return;
+        }
+        warmSessionSavings.put(session, savedNanos);
+        idleSessions.offer(session);
+        Log.debug(logger, "Warmed up browser session in {} ms", toMillis(System.nanoTime() - startNanos));
+    }
+
+    private BrowserSession startSessionIfBelowMaxSize() {
+        int count;
+        do {
+            count = sessionCount.get();
+            if (count >= maxSize) return null;
+        } while (!sessionCount.compareAndSet(count, count + 1));
+        try {
+            long startNanos = System.nanoTime();
+            BrowserSession session = new BrowserSession(driverFactory.get());
+            allSessions.add(session);
+            Log.debug(logger, "Started browser session in {} ms", toMillis(System.nanoTime() - startNanos));
+            return session;
+        } catch (RuntimeException exception) {
+            sessionCount.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    private void discard(BrowserSession session) {
+        allSessions.remove(session);
+        warmSessionSavings.remove(session);
+        session.quit();
+        sessionCount.decrementAndGet();
+    }
+
+    private static void record(AtomicLong total, AtomicLong max, long nanos) {
+        total.addAndGet(nanos);
+        long currentMax;
+        do {
+            currentMax = max.get();
+            if (nanos <= currentMax) return;
+        } while (!max.compareAndSet(currentMax, nanos));
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,92 @@
+package com.amazon.test;
+
+import com.amazon.test.util.Log;
+import com.amazon.test.web.LocatorCache;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * A browser session managed by the {@link BrowserPool}.
+ * The session wraps a {@link WebDriver} and keeps track of how many scenarios have used it
+ * so that the pool can recycle it once it is worn out or broken.
+ */
+public class BrowserSession {
+    private static final Logger logger = Logger.getLogger(BrowserSession.class.getCanonicalName());
+    private static final String BLANK_PAGE_URL = "about:blank";
+    private static final String SCRIPT_CLEAR_STORAGE = "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private final WebDriver driver;
+    private final LocatorCache locatorCache;
+    private int useCount;
+    private boolean healthy;
+
+    BrowserSession(WebDriver driver) {
+        this.driver = driver;
+        this.locatorCache = new LocatorCache(driver);
+        this.useCount = 0;
+        this.healthy = true;
+    }
+
+    public WebDriver getDriver() {
+        return this.driver;
+    }
+
+    public LocatorCache getLocatorCache() {
+        return this.locatorCache;
+    }
+
+    /**
+     * Get the number of times this session has been leased from the pool.
+     *
+     * @return lease count
+     */
+    public int getUseCount() {
+        return this.useCount;
+    }
+
+    /**
+     * Determines whether the session is still usable.
+     * A session becomes unhealthy when the browser stops responding to commands.
+     *
+     * @return true if healthy otherwise false
+     */
+    public boolean isHealthy() {
+        return this.healthy;
+    }
+
+    void markUsed() {
+        this.useCount++;
+    }
+
+    /**
+     * Resets the browser so the next scenario starts from a clean state.
+     * Storage and cookies of the current origin are cleared, the browser is navigated to a blank page
+     * and the {@link LocatorCache} is cleared.
+     * If the browser fails to respond, the session is marked unhealthy.
+     */
+    void reset() {
+        locatorCache.clear();
+        try {
+            ((JavascriptExecutor) driver).executeScript(SCRIPT_CLEAR_STORAGE);
+            driver.manage().deleteAllCookies();
+            driver.get(BLANK_PAGE_URL);
+        } catch (WebDriverException exception) {
+            Log.warn(logger, "Browser session failed to reset and will be recycled : {}", exception.getMessage());
+            this.healthy = false;
+        }
+    }
+
+    /**
+     * Quits the browser of the session.
+     */
+    void quit() {
+        this.healthy = false;
+        try {
+            driver.quit();
+        } catch (WebDriverException exception) {
+            Log.warn(logger, "Browser session failed to quit : {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.amazon.test;
+
+import com.amazon.test.util.Log;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reruns the scenarios failed by a run, so that a transient failure does not require running all scenarios again.
+ * The failed scenarios are read from the file written by the cucumber 'rerun' plugin and executed again in the same
+ * JVM, so they run on the browsers already started and warmed up in the {@link BrowserPool}. Scenarios still failing
+ * are executed again, up to the attempts set by the 'RERUN_ATTEMPTS' property.
+ * <p>
+ * Scenarios passing in a rerun are flaky, the others are failing. They are logged and written with the time spent
+ * on reruns to {@value #REPORT_FILE}, and the execution report of each attempt is written to
+ * 'reports/cucumber-rerun-N.html'.
+ */
+public class FailedScenarioRerun {
+    private static final Logger logger = Logger.getLogger(FailedScenarioRerun.class.getCanonicalName());
+    // File of the failed scenarios written by the 'rerun' plugin of the run
+    public static final String FAILED_SCENARIOS_FILE = "build/rerun/failed-scenarios.txt";
+    private static final String ATTEMPT_FAILED_SCENARIOS_FILE = "build/rerun/failed-scenarios-%d.txt";
+    private static final String ATTEMPT_REPORT_FILE = "reports/cucumber-rerun-%d.html";
+    private static final String REPORT_FILE = "reports/rerun-report.json";
+    private static final String GLUE = "com.amazon.test.stepDefinitions";
+    // Feature path, without the 'file:' scheme, followed by the lines of its failed scenarios
+    private static final Pattern RERUN_FEATURE = Pattern.compile("(?:file:)?(.+?)((?::\\d+)+)");
+
+    private FailedScenarioRerun() {
+    }
+
+    /**
+     * Reruns the failed scenarios of the run. Does nothing if no scenario failed or if 'RERUN_ATTEMPTS' is 0.
+     */
+    public static void rerunFailedScenarios() {
+        int attempts = ProjectProperties.getRerunAttempts();
+        Set<String> failing = readFailedScenarios(Paths.get(FAILED_SCENARIOS_FILE));
+        if (attempts <= 0 || failing.isEmpty()) return;
+        Set<String> failedScenarios = new LinkedHashSet<>(failing);
+        Set<String> flaky = new LinkedHashSet<>();
+        List<Long> attemptMillis = new ArrayList<>();
+        long startNanos = System.nanoTime();
+        for (int attempt = 1; attempt <= attempts && !failing.isEmpty(); attempt++) {
+            Log.info(logger, "Rerun attempt {} of failed scenarios : {}", attempt, failing);
+            long attemptStartNanos = System.nanoTime();
+            Path attemptFailedScenariosFile = Paths.get(String.format(ATTEMPT_FAILED_SCENARIOS_FILE, attempt));
+            // A file left by a previous build must not be read as the result of this attempt
+            if (!deleteFailedScenarios(attemptFailedScenariosFile)) break;
+            List<String> args = new ArrayList<>(Arrays.asList(
+                    "--plugin", "pretty",
+                    "--plugin", "html:" + String.format(ATTEMPT_REPORT_FILE, attempt),
+                    "--plugin", "rerun:" + attemptFailedScenariosFile,
+                    "--threads", String.valueOf(Math.min(ProjectProperties.getBrowserPoolSize(), failing.size())),
+                    "--glue", GLUE));
+            args.addAll(failing);
+            byte exitStatus;
+            try {
+                exitStatus = io.cucumber.core.cli.Main.run(args.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+            } catch (RuntimeException exception) {
+                logger.error("Rerun attempt " + attempt + " aborted", exception);
+                exitStatus = 1;
+            }
+            attemptMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attemptStartNanos));
+            Set<String> stillFailing = readFailedScenarios(attemptFailedScenariosFile);
+            if (exitStatus != 0 && stillFailing.isEmpty()) {
+                // The attempt failed without reporting failed scenarios, e.g. it aborted before the end of the run
+                Log.warn(logger, "Rerun attempt {} failed without result, its scenarios are kept as failing", attempt);
+                stillFailing = failing;
+            }
+            for (String scenario : failing) {
+                if (!stillFailing.contains(scenario)) flaky.add(scenario);
+            }
+            failing = stillFailing;
+        }
+        long rerunMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        Log.info(logger, "Rerun of {} failed scenarios took {} ms in {} attempts - flaky : {}, failing : {}",
+                failedScenarios.size(), rerunMillis, attemptMillis.size(), flaky, failing);
+        writeReport(failedScenarios, flaky, failing, attemptMillis, rerunMillis);
+    }
+
+    /**
+     * Reads the failed scenarios written by the 'rerun' plugin, e.g. 'file:src/test/resources/features/Search.feature:13:15'.
+     *
+     * @param file rerun file
+     * @return locations of the failed scenarios, e.g. 'src/test/resources/features/Search.feature:13', or empty set
+     * if file does not exist
+     */
+    static Set<String> readFailedScenarios(Path file) {
+        Set<String> scenarios = new LinkedHashSet<>();
+        if (!Files.exists(file)) return scenarios;
+        try {
+            for (String feature : new String(Files.readAllBytes(file), StandardCharsets.UTF_8).split("\\s+")) {
+                Matcher matcher = RERUN_FEATURE.matcher(feature);
+                if (!matcher.matches()) continue;
+                for (String line : matcher.group(2).substring(1).split(":")) scenarios.add(matcher.group(1) + ":" + line);
+            }
+        } catch (IOException exception) {
+            logger.error("Failed to read failed scenarios from " + file, exception);
+        }
+        return scenarios;
+    }
+
+    private static boolean deleteFailedScenarios(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException exception) {
+            logger.error("Failed to delete failed scenarios from " + file, exception);
+            return false;
+        }
+    }
+
+    private static void writeReport(Set<String> failedScenarios, Set<String> flaky, Set<String> failing,
+                                    List<Long> attemptMillis, long rerunMillis) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("failedScenarios", failedScenarios);
+        report.put("flaky", flaky);
+        report.put("failing", failing);
+        report.put("attemptMillis", attemptMillis);
+        report.put("rerunMillis", rerunMillis);
+        Path reportFile = Paths.get(REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.write(reportFile, new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException exception) {
+            logger.error("Failed to write rerun report to " + REPORT_FILE, exception);
+        }
+    }
+}
@@ -1,14 +1,69 @@
 package com.amazon.test;
 
+import com.amazon.test.fixture.FixtureServer;
+import com.amazon.test.impact.ImpactRecorder;
+import com.amazon.test.util.ShutdownSequence;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class ProjectProperties {
     private static final Properties projectProperties = new Properties();
     private static final String RESOURCE_FILE_NAME = "project.properties";
     private static final String KEY_HOME_URL = "HOME_URL";
     private static final String KEY_CHROME_DRIVER_FILE = "CHROME_DRIVER_FILE";
+    private static final String KEY_BROWSER_POOL_SIZE = "BROWSER_POOL_SIZE";
+    private static final String KEY_BROWSER_MAX_USES = "BROWSER_MAX_USES";
+    private static final String KEY_BROWSER_LEASE_TIMEOUT_MILLIS = "BROWSER_LEASE_TIMEOUT_MILLIS";
+    private static final String KEY_BROWSER_WARM_UP = "BROWSER_WARM_UP";
+    private static final String KEY_PAGE_WAIT_TIMEOUT_MILLIS = "PAGE_WAIT_TIMEOUT_MILLIS";
+    private static final String KEY_PAGE_CONTENT_MODE = "PAGE_CONTENT_MODE";
+    private static final String KEY_PAGE_CONTENT_MAX_CHARS = "PAGE_CONTENT_MAX_CHARS";
+    private static final String KEY_RESOURCE_BLOCKING = "RESOURCE_BLOCKING";
+    private static final String KEY_BLOCK_IMAGES = "BLOCK_IMAGES";
+    private static final String KEY_BLOCKED_RESOURCE_TYPES = "BLOCKED_RESOURCE_TYPES";
+    private static final String KEY_BLOCKED_URL_PATTERNS = "BLOCKED_URL_PATTERNS";
+    private static final String KEY_RESOURCE_METRICS = "RESOURCE_METRICS";
+    private static final String KEY_RESOURCE_METRICS_FILE = "RESOURCE_METRICS_FILE";
+    private static final String KEY_SESSION_SNAPSHOTS = "SESSION_SNAPSHOTS";
+    private static final String KEY_SESSION_SNAPSHOT_TTL_MINUTES = "SESSION_SNAPSHOT_TTL_MINUTES";
+    private static final String KEY_FAILURE_ARTIFACTS = "FAILURE_ARTIFACTS";
+    private static final String KEY_FAILURE_ARTIFACT_COMMANDS = "FAILURE_ARTIFACT_COMMANDS";
+    private static final String KEY_FAILURE_ARTIFACT_QUOTA_MB = "FAILURE_ARTIFACT_QUOTA_MB";
+    private static final String KEY_RERUN_ATTEMPTS = "RERUN_ATTEMPTS";
+    private static final String KEY_FIXTURE_MODE = "FIXTURE_MODE";
+    private static final String KEY_FIXTURE_DIRECTORY = "FIXTURE_DIRECTORY";
+
+    private static final String FIXTURE_MODE_OFF = "off";
+    private static final String FIXTURE_MODE_REPLAY = "replay";
+    private static final String FIXTURE_MODE_RECORD = "record";
+
+    private static final int DEFAULT_BROWSER_POOL_SIZE = 1;
+    private static final int DEFAULT_BROWSER_MAX_USES = 20;
+    private static final long DEFAULT_BROWSER_LEASE_TIMEOUT_MILLIS = 120000;
+    private static final boolean DEFAULT_BROWSER_WARM_UP = true;
+    private static final long DEFAULT_PAGE_WAIT_TIMEOUT_MILLIS = 10000;
+    private static final String DEFAULT_PAGE_CONTENT_MODE = "snapshot";
+    private static final int DEFAULT_PAGE_CONTENT_MAX_CHARS = 0;
+    private static final boolean DEFAULT_RESOURCE_BLOCKING = false;
+    private static final boolean DEFAULT_BLOCK_IMAGES = false;
+    private static final boolean DEFAULT_RESOURCE_METRICS = false;
+    private static final String DEFAULT_RESOURCE_METRICS_FILE = "reports/resource-metrics.csv";
+    private static final boolean DEFAULT_SESSION_SNAPSHOTS = true;
+    private static final long DEFAULT_SESSION_SNAPSHOT_TTL_MINUTES = 30;
+    private static final boolean DEFAULT_FAILURE_ARTIFACTS = true;
+    private static final long DEFAULT_FAILURE_ARTIFACT_COMMANDS = 20;
+    private static final long DEFAULT_FAILURE_ARTIFACT_QUOTA_MB = 100;
+    private static final long DEFAULT_RERUN_ATTEMPTS = 2;
+    private static final String DEFAULT_FIXTURE_DIRECTORY = "/src/test/resources/fixtures/amazon.in";
+
+    private static FixtureServer fixtureServer;
 
     static {
         InputStream resourceInputStream = null;
@@ -28,15 +83,195 @@ public class ProjectProperties {
         }
     }
 
+    /**
+     * Get the home URL of the website under test.
+     * Unless the 'FIXTURE_MODE' property is 'off', this is the URL of the local {@link FixtureServer}
+     * which replays or records the pages of the website.
+     *
+     * @return home URL
+     * @throws IllegalStateException if 'FIXTURE_MODE' property is not 'off', 'replay' or 'record'
+     */
     public static String getHomeUrl() {
-        return projectProperties.getProperty(KEY_HOME_URL);
+        String fixtureMode = getFixtureMode();
+        if (FIXTURE_MODE_OFF.equals(fixtureMode)) {
+            return projectProperties.getProperty(KEY_HOME_URL);
+        }
+        return getFixtureServer(FIXTURE_MODE_RECORD.equals(fixtureMode)).getBaseUrl();
+    }
+
+    /**
+     * Get the fixture mode, one of 'off', 'replay' or 'record' ignoring case.
+     *
+     * @return fixture mode in lower case
+     * @throws IllegalStateException if the mode is not supported
+     */
+    private static String getFixtureMode() {
+        String fixtureMode = getProperty(KEY_FIXTURE_MODE, FIXTURE_MODE_OFF).trim().toLowerCase();
+        if (!FIXTURE_MODE_OFF.equals(fixtureMode) && !FIXTURE_MODE_REPLAY.equals(fixtureMode) && !FIXTURE_MODE_RECORD.equals(fixtureMode)) {
+            throw new IllegalStateException("Unsupported fixture mode : " + fixtureMode + " - expected off, replay or record");
+        }
+        return fixtureMode;
+    }
+
+    /**
+     * Get the {@link FixtureServer}, starting it on first call. The server is stopped when the JVM exits.
+     *
+     * @param record true to record the pages of the live website, false to replay recorded pages
+     * @return started fixture server
+     * @throws IllegalStateException if fixture server cannot be started
+     */
+    private static synchronized FixtureServer getFixtureServer(boolean record) {
+        if (fixtureServer == null) {
+            String fixtureDirectory = System.getProperty("user.dir") + getProperty(KEY_FIXTURE_DIRECTORY, DEFAULT_FIXTURE_DIRECTORY);
+            try {
+                FixtureServer server = new FixtureServer(Paths.get(fixtureDirectory), record ? projectProperties.getProperty(KEY_HOME_URL) : null);
+                server.start();
+                ShutdownSequence.add(server::stop);
+                fixtureServer = server;
+            } catch (IOException exception) {
+                throw new IllegalStateException("Cannot start fixture server : " + exception.getMessage(), exception);
+            }
+        }
+        return fixtureServer;
     }
 
     public static String getChromeDriverFilePath() {
         return projectProperties.getProperty(KEY_CHROME_DRIVER_FILE);
     }
 
+    public static int getBrowserPoolSize() {
+        return (int) getLongProperty(KEY_BROWSER_POOL_SIZE, DEFAULT_BROWSER_POOL_SIZE);
+    }
+
+    public static int getBrowserMaxUses() {
+        return (int) getLongProperty(KEY_BROWSER_MAX_USES, DEFAULT_BROWSER_MAX_USES);
+    }
+
+    public static long getBrowserLeaseTimeoutMillis() {
+        return getLongProperty(KEY_BROWSER_LEASE_TIMEOUT_MILLIS, DEFAULT_BROWSER_LEASE_TIMEOUT_MILLIS);
+    }
+
+    public static boolean isBrowserWarmUpEnabled() {
+        return getBooleanProperty(KEY_BROWSER_WARM_UP, DEFAULT_BROWSER_WARM_UP);
+    }
+
+    public static long getPageWaitTimeoutMillis() {
+        return getLongProperty(KEY_PAGE_WAIT_TIMEOUT_MILLIS, DEFAULT_PAGE_WAIT_TIMEOUT_MILLIS);
+    }
+
+    public static String getPageContentMode() {
+        return getProperty(KEY_PAGE_CONTENT_MODE, DEFAULT_PAGE_CONTENT_MODE);
+    }
+
+    public static int getPageContentMaxChars() {
+        return (int) getLongProperty(KEY_PAGE_CONTENT_MAX_CHARS, DEFAULT_PAGE_CONTENT_MAX_CHARS);
+    }
+
+    public static boolean isResourceBlockingEnabled() {
+        return getBooleanProperty(KEY_RESOURCE_BLOCKING, DEFAULT_RESOURCE_BLOCKING);
+    }
+
+    public static boolean isImageBlockingEnabled() {
+        return getBooleanProperty(KEY_BLOCK_IMAGES, DEFAULT_BLOCK_IMAGES);
+    }
+
+    public static List<String> getBlockedResourceTypes() {
+        return getListProperty(KEY_BLOCKED_RESOURCE_TYPES);
+    }
+
+    public static List<String> getBlockedUrlPatterns() {
+        return getListProperty(KEY_BLOCKED_URL_PATTERNS);
+    }
+
+    public static boolean isResourceMetricsEnabled() {
+        return getBooleanProperty(KEY_RESOURCE_METRICS, DEFAULT_RESOURCE_METRICS);
+    }
+
+    public static String getResourceMetricsFile() {
+        return getProperty(KEY_RESOURCE_METRICS_FILE, DEFAULT_RESOURCE_METRICS_FILE);
+    }
+
+    public static boolean isSessionSnapshotEnabled() {
+        return getBooleanProperty(KEY_SESSION_SNAPSHOTS, DEFAULT_SESSION_SNAPSHOTS);
+    }
+
+    public static long getSessionSnapshotTtlMillis() {
+        return TimeUnit.MINUTES.toMillis(getLongProperty(KEY_SESSION_SNAPSHOT_TTL_MINUTES, DEFAULT_SESSION_SNAPSHOT_TTL_MINUTES));
+    }
+
+    public static boolean isFailureArtifactsEnabled() {
+        return getBooleanProperty(KEY_FAILURE_ARTIFACTS, DEFAULT_FAILURE_ARTIFACTS);
+    }
+
+    public static long getFailureArtifactCommandCount() {
+        return getLongProperty(KEY_FAILURE_ARTIFACT_COMMANDS, DEFAULT_FAILURE_ARTIFACT_COMMANDS);
+    }
+
+    public static long getFailureArtifactQuotaMegabytes() {
+        return getLongProperty(KEY_FAILURE_ARTIFACT_QUOTA_MB, DEFAULT_FAILURE_ARTIFACT_QUOTA_MB);
+    }
+
+    public static int getRerunAttempts() {
+        return (int) getLongProperty(KEY_RERUN_ATTEMPTS, DEFAULT_RERUN_ATTEMPTS);
+    }
+
     public static String getProperty(String key) {
+        ImpactRecorder.recordProperty(key);
         return projectProperties.getProperty(key);
     }
+
+    /**
+     * Get a property. A system property with the same key takes precedence over the project property.
+     *
+     * @param key          property key
+     * @param defaultValue value returned when the property is not set
+     * @return property value or defaultValue if property is not set
+     */
+    public static String getProperty(String key, String defaultValue) {
+        ImpactRecorder.recordProperty(key);
+        String value = System.getProperty(key, projectProperties.getProperty(key));
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        return value.trim();
+    }
+
+    /**
+     * Get a numeric property. A system property with the same key takes precedence over the project property.
+     *
+     * @param key          property key
+     * @param defaultValue value returned when the property is not set
+     * @return property value or defaultValue if property is not set
+     * @throws NumberFormatException if property value is not a number
+     */
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) return defaultValue;
+        return Long.parseLong(value);
+    }
+
+    /**
+     * Get a boolean property. A system property with the same key takes precedence over the project property.
+     *
+     * @param key          property key
+     * @param defaultValue value returned when the property is not set
+     * @return true if property value is 'true' ignoring case, defaultValue if property is not set otherwise false
+     */
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getProperty(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Get a comma separated list property. A system property with the same key takes precedence over the project property.
+     *
+     * @param key property key
+     * @return trimmed non empty values of the property or empty list if property is not set
+     */
+    public static List<String> getListProperty(String key) {
+        String value = getProperty(key, null);
+        if (value == null) return Collections.emptyList();
+        List<String> values = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) values.add(item.trim());
+        }
+        return values;
+    }
 }
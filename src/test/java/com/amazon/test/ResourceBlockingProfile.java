@@ -0,0 +1,119 @@
+package com.amazon.test;
+
+import com.amazon.test.metrics.TimedChromeDriver;
+import com.amazon.test.util.Log;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profile of the resources the browser does not download.
+ * Images can be disabled through {@link ChromeOptions}. Other resources are blocked by URL pattern through the
+ * Chrome DevTools Protocol. As the protocol only blocks requests by URL, resource types are blocked by the file
+ * extensions of their URLs.
+ */
+public class ResourceBlockingProfile {
+    private static final Logger logger = Logger.getLogger(ResourceBlockingProfile.class.getCanonicalName());
+    private static final String ARGUMENT_DISABLE_IMAGES = "--blink-settings=imagesEnabled=false";
+    private static final String PREFERENCE_IMAGES = "profile.managed_default_content_settings.images";
+    private static final int CONTENT_SETTING_BLOCK = 2;
+    private static final Map<String, List<String>> RESOURCE_TYPE_PATTERNS = new HashMap<>();
+
+    static {
+        RESOURCE_TYPE_PATTERNS.put("image", toPatterns("jpg", "jpeg", "png", "gif", "webp", "svg", "ico", "bmp"));
+        RESOURCE_TYPE_PATTERNS.put("font", toPatterns("woff", "woff2", "ttf", "otf", "eot"));
+        RESOURCE_TYPE_PATTERNS.put("media", toPatterns("mp4", "webm", "ogg", "mp3", "wav", "m3u8"));
+        RESOURCE_TYPE_PATTERNS.put("stylesheet", toPatterns("css"));
+    }
+
+    private final boolean imagesDisabled;
+    private final List<String> blockedUrlPatterns;
+
+    /**
+     * Constructs a {@link ResourceBlockingProfile}.
+     *
+     * @param imagesDisabled true to disable images in the browser
+     * @param resourceTypes  types of resources to block, among Image, Font, Media and Stylesheet
+     * @param urlPatterns    URL patterns of resources to block, '*' matching any characters
+     * @throws IllegalArgumentException if a resource type is not supported
+     */
+    public ResourceBlockingProfile(boolean imagesDisabled, Collection<String> resourceTypes, Collection<String> urlPatterns) {
+        this.imagesDisabled = imagesDisabled;
+        LinkedHashSet<String> patterns = new LinkedHashSet<>();
+        for (String resourceType : resourceTypes) {
+            List<String> typePatterns = RESOURCE_TYPE_PATTERNS.get(resourceType.toLowerCase());
+            if (typePatterns == null) throw new IllegalArgumentException("Unsupported resource type to block : " + resourceType);
+            patterns.addAll(typePatterns);
+        }
+        patterns.addAll(urlPatterns);
+        this.blockedUrlPatterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+    }
+
+    /**
+     * Creates the profile configured by the 'RESOURCE_BLOCKING', 'BLOCK_IMAGES', 'BLOCKED_RESOURCE_TYPES' and
+     * 'BLOCKED_URL_PATTERNS' properties.
+     *
+     * @return configured profile, blocking nothing if resource blocking is disabled
+     */
+    public static ResourceBlockingProfile fromProperties() {
+        if (!ProjectProperties.isResourceBlockingEnabled()) {
+            return new ResourceBlockingProfile(false, Collections.emptyList(), Collections.emptyList());
+        }
+        return new ResourceBlockingProfile(ProjectProperties.isImageBlockingEnabled(),
+                ProjectProperties.getBlockedResourceTypes(), ProjectProperties.getBlockedUrlPatterns());
+    }
+
+    public boolean isImagesDisabled() {
+        return this.imagesDisabled;
+    }
+
+    public List<String> getBlockedUrlPatterns() {
+        return this.blockedUrlPatterns;
+    }
+
+    /**
+     * Applies the browser settings of the profile to the options of a browser to start.
+     *
+     * @param options options of the browser
+     */
+    public void applyTo(ChromeOptions options) {
+        if (!imagesDisabled) return;
+        // The content setting is ignored by some headless versions, which honor the blink settings
+        options.addArguments(ARGUMENT_DISABLE_IMAGES);
+        options.setExperimentalOption("prefs", Collections.singletonMap(PREFERENCE_IMAGES, CONTENT_SETTING_BLOCK));
+    }
+
+    /**
+     * Blocks the URL patterns of the profile in a started browser.
+     * The browser keeps running without blocking if the chromedriver does not support the DevTools Protocol.
+     *
+     * @param driver started browser
+     */
+    public void applyTo(TimedChromeDriver driver) {
+        if (blockedUrlPatterns.isEmpty()) return;
+        try {
+            driver.executeCdpCommand("Network.enable", Collections.emptyMap());
+            driver.executeCdpCommand("Network.setBlockedURLs", Collections.singletonMap("urls", blockedUrlPatterns));
+        } catch (WebDriverException exception) {
+            Log.warn(logger, "Resource blocking is not applied : {}", exception.getMessage());
+        }
+    }
+
+    private static List<String> toPatterns(String... extensions) {
+        List<String> patterns = new ArrayList<>();
+        for (String extension : extensions) {
+            // Match the extension with or without a query string
+            patterns.add("*." + extension);
+            patterns.add("*." + extension + "?*");
+        }
+        return patterns;
+    }
+}
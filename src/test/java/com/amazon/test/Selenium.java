@@ -1,30 +1,119 @@
 package com.amazon.test;
 
+import com.amazon.test.metrics.PageLoadMetrics;
+import com.amazon.test.metrics.TimedChromeDriver;
+import com.amazon.test.util.Log;
+import com.amazon.test.util.ShutdownSequence;
+import com.amazon.test.web.LocatorCache;
+import org.apache.log4j.Logger;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 
+import java.util.concurrent.TimeUnit;
+
 public class Selenium {
+    private static final Logger logger = Logger.getLogger(Selenium.class.getCanonicalName());
+
     static {
         // Configure chrome web driver file path
         System.setProperty("webdriver.chrome.driver", System.getProperty("user.dir") + ProjectProperties.getChromeDriverFilePath());
     }
 
-    private static WebDriver driver;
+    private static final BrowserPool pool = new BrowserPool(
+            Selenium::newChromeDriver,
+            ProjectProperties.getBrowserPoolSize(),
+            ProjectProperties.getBrowserMaxUses(),
+            ProjectProperties.getBrowserLeaseTimeoutMillis()
+    );
 
-    public static void startBrowser() {
+    static {
+        // Quit the pooled browsers once all scenarios are executed, the asynchronous log is flushed afterwards
+        ShutdownSequence.add(pool::shutdown);
+    }
+
+    // Each scenario worker thread leases its own browser session
+    private static final ThreadLocal<BrowserSession> session = new ThreadLocal<>();
+
+    private static WebDriver newChromeDriver() {
         ChromeOptions options = new ChromeOptions();
         // Start chrome driver in headless mode
         options.addArguments("--headless");
-        driver = new ChromeDriver(options);
+        ResourceBlockingProfile blockingProfile = ResourceBlockingProfile.fromProperties();
+        blockingProfile.applyTo(options);
+        // Time every command sent to the browser
+        TimedChromeDriver driver = new TimedChromeDriver(ChromeDriverService.createDefaultService(), options);
+        blockingProfile.applyTo(driver);
+        if (ProjectProperties.isResourceMetricsEnabled()) PageLoadMetrics.enable(driver);
+        return driver;
+    }
+
+    /**
+     * Starts the browser sessions of the {@link BrowserPool} in the background and preloads the home page in each
+     * of them, so that the scenarios begin on a warm session with DNS, TLS and HTTP cache of the home page ready.
+     * Does nothing if the 'BROWSER_WARM_UP' property is false.
+     */
+    public static void warmUp() {
+        if (!ProjectProperties.isBrowserWarmUpEnabled()) return;
+        pool.prewarm(ProjectProperties.getBrowserPoolSize(), Selenium::preloadHomePage);
     }
 
+    /**
+     * Loads the home page in a new session, then loads it again to measure the load time of a warm browser.
+     * The session is reset afterwards, which keeps the HTTP cache of the browser.
+     *
+     * @param warmSession session to warm up
+     * @return load time saved by the preload in nanoseconds
+     */
+    private static long preloadHomePage(BrowserSession warmSession) {
+        WebDriver driver = warmSession.getDriver();
+        String homeUrl = ProjectProperties.getHomeUrl();
+        long startNanos = System.nanoTime();
+        driver.get(homeUrl);
+        long coldLoadNanos = System.nanoTime() - startNanos;
+        startNanos = System.nanoTime();
+        driver.get(homeUrl);
+        long warmLoadNanos = System.nanoTime() - startNanos;
+        warmSession.reset();
+        Log.debug(logger, "Preloaded home page - cold load : {} ms, warm load : {} ms",
+                TimeUnit.NANOSECONDS.toMillis(coldLoadNanos), TimeUnit.NANOSECONDS.toMillis(warmLoadNanos));
+        return coldLoadNanos - warmLoadNanos;
+    }
+
+    /**
+     * Leases a browser session from the {@link BrowserPool} for the current thread.
+     */
+    public static void startBrowser() {
+        session.set(pool.lease());
+    }
+
+    /**
+     * Returns the browser session leased by the current thread to the {@link BrowserPool}.
+     */
     public static void quitBrowser() {
-        if (driver != null) driver.quit();
+        BrowserSession leasedSession = session.get();
+        if (leasedSession != null) {
+            session.remove();
+            pool.release(leasedSession);
+        }
     }
 
     public static WebDriver browser() {
-        if (driver == null) throw new IllegalStateException("Accessing browser without invoking startBrowser() first");
-        return driver;
+        return leasedSession().getDriver();
+    }
+
+    /**
+     * Get the {@link LocatorCache} of the browser session leased by the current thread.
+     *
+     * @return locator cache of the browser
+     */
+    public static LocatorCache locatorCache() {
+        return leasedSession().getLocatorCache();
+    }
+
+    private static BrowserSession leasedSession() {
+        BrowserSession leasedSession = session.get();
+        if (leasedSession == null) throw new IllegalStateException("Accessing browser without invoking startBrowser() first");
+        return leasedSession;
     }
 }
@@ -2,13 +2,29 @@ package com.amazon.test;
 
 import io.cucumber.junit.Cucumber;
 import io.cucumber.junit.CucumberOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
 import org.junit.runner.RunWith;
 
 @RunWith(Cucumber.class)
 @CucumberOptions(
-        plugin = {"pretty", "html:reports/cucumber-tests.html"},
+        plugin = {"pretty", "html:reports/cucumber-tests.html", "com.amazon.test.metrics.StepTimingPlugin:reports/step-timings",
+                "com.amazon.test.impact.ImpactRecorderPlugin:reports/impact-map.json",
+                "rerun:" + FailedScenarioRerun.FAILED_SCENARIOS_FILE},
         features = "src/test/resources/features",
         glue = "com.amazon.test.stepDefinitions"
 )
 public class TestRunner {
+
+    @BeforeClass
+    public static void warmUpBrowsers() {
+        // Browsers start and load the home page while cucumber starts the first scenarios
+        Selenium.warmUp();
+    }
+
+    @AfterClass
+    public static void rerunFailedScenarios() {
+        // Failed scenarios are executed again while the pooled browsers are still warm
+        FailedScenarioRerun.rerunFailedScenarios();
+    }
 }
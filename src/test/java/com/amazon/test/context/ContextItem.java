@@ -1,8 +1,50 @@
 package com.amazon.test.context;
 
+import com.amazon.test.web.page.PageType;
+
 /**
- * This enum stores the keys for the items set in the {@link ScenarioContext}.
+ * This class defines the typed keys for the items set in the {@link ScenarioContext}.
+ * Each key is given an ordinal, its index in the item storage of the {@link ScenarioContext}.
+ *
+ * @param <T> type of the item value
  */
-public enum ContextItem {
-    VISIT_PAGE_TYPE,
+public final class ContextItem<T> {
+    // Number of keys defined, declared before the keys as it is incremented while they are initialized
+    private static int count;
+
+    public static final ContextItem<PageType> VISIT_PAGE_TYPE = new ContextItem<>("VISIT_PAGE_TYPE", PageType.class);
+    // Key of the credentials the user signs in with, e.g. 'USER_EMAIL'
+    public static final ContextItem<String> SIGN_IN_CREDENTIAL = new ContextItem<>("SIGN_IN_CREDENTIAL", String.class);
+
+    private final String name;
+    private final Class<T> type;
+    private final int ordinal;
+
+    private ContextItem(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+        this.ordinal = count++;
+    }
+
+    /**
+     * Get the number of keys defined.
+     *
+     * @return key count
+     */
+    static int count() {
+        return count;
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    int ordinal() {
+        return this.ordinal;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
 }
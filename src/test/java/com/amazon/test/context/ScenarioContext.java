@@ -1,41 +1,24 @@
 package com.amazon.test.context;
 
 
-import java.util.HashMap;
-
 /**
  * This class stores context data of a scenario.
  * The data stored in the context is shared among all step definitions of a scenario during the execution of that scenario.
+ * A new context is created for every scenario and injected into the step definitions by Cucumber, so scenarios
+ * running in parallel never share a context. Items are stored in an array indexed by {@link ContextItem} ordinal.
  */
 public class ScenarioContext {
-    private static HashMap<ContextItem, Object> contextData = null;
-
-    /**
-     * Creates new context data.
-     * When called first time a new context data is created.
-     * Subsequent calls clears context data.
-     */
-    public static void create() {
-        if (contextData == null) contextData = new HashMap<>();
-        else contextData.clear();
-    }
-
-    /**
-     * Purges all context data.
-     */
-    public static void purge() {
-        contextData.clear();
-        contextData = null;
-    }
+    private final Object[] items = new Object[ContextItem.count()];
 
     /**
      * Get an item stored in the context data.
      *
      * @param contextItem item key
-     * @return stored item or null if item key does not exist in the context
+     * @param <T>         type of the item value
+     * @return stored item or null if item is not set in the context
      */
-    public static Object getItem(ContextItem contextItem) {
-        return contextData.get(contextItem);
+    public <T> T getItem(ContextItem<T> contextItem) {
+        return contextItem.getType().cast(items[contextItem.ordinal()]);
     }
 
     /**
@@ -43,8 +26,9 @@ public class ScenarioContext {
      *
      * @param contextItem item key
      * @param value       item value
+     * @param <T>         type of the item value
      */
-    public static void setItem(ContextItem contextItem, Object value) {
-        contextData.put(contextItem, value);
+    public <T> void setItem(ContextItem<T> contextItem, T value) {
+        items[contextItem.ordinal()] = value;
     }
 }
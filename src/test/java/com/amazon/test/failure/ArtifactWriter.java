@@ -0,0 +1,114 @@
+package com.amazon.test.failure;
+
+import com.amazon.test.util.Log;
+import com.amazon.test.util.ShutdownSequence;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes artifact files from a background thread, so that the thread which submits them does not wait for the disk.
+ * Files can be compressed with gzip while they are written. Submitted files wait in a bounded queue and are dropped
+ * when the queue is full, and files are no longer written once the disk quota is used up.
+ */
+class ArtifactWriter {
+    private static final Logger logger = Logger.getLogger(ArtifactWriter.class.getCanonicalName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final long quotaBytes;
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+    private volatile boolean quotaExceeded;
+
+    /**
+     * Constructs an {@link ArtifactWriter} whose pending files are written when the JVM exits.
+     *
+     * @param queueCapacity maximum number of files waiting to be written
+     * @param quotaBytes    maximum number of bytes written to disk
+     */
+    ArtifactWriter(int queueCapacity, long quotaBytes) {
+        this.quotaBytes = quotaBytes;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "artifact-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ShutdownSequence.add(this::shutdown);
+    }
+
+    /**
+     * Submits a file to write. Missing parent directories are created.
+     *
+     * @param file     file to write, which must not exist
+     * @param content  content of the file
+     * @param compress true to write the content compressed with gzip
+     * @return true if the file is queued, false if it is dropped because the queue is full or the quota is used up
+     */
+    boolean submit(Path file, byte[] content, boolean compress) {
+        if (quotaExceeded) return false;
+        try {
+            executor.execute(() -> write(file, content, compress));
+            return true;
+        } catch (RejectedExecutionException exception) {
+            Log.warn(logger, "Artifact {} dropped, too many artifacts waiting to be written", file);
+            return false;
+        }
+    }
+
+    private void write(Path file, byte[] content, boolean compress) {
+        if (quotaExceeded) return;
+        // Reserve the content length before writing, as a file crossing the quota must not be written. Compressed
+        // content is usually smaller, so the reservation is adjusted to the size of the file once written
+        long reservedBytes = content.length;
+        if (writtenBytes.addAndGet(reservedBytes) > quotaBytes) {
+            writtenBytes.addAndGet(-reservedBytes);
+            quotaExceeded = true;
+            Log.warn(logger, "Artifact {} not written as it exceeds the disk quota, next artifacts are not written", file);
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                if (compress) {
+                    try (OutputStream outputStream = new GZIPOutputStream(Channels.newOutputStream(channel), 8192)) {
+                        outputStream.write(content);
+                    }
+                } else {
+                    ByteBuffer buffer = ByteBuffer.wrap(content);
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                }
+            }
+            writtenBytes.addAndGet(Files.size(file) - reservedBytes);
+        } catch (IOException exception) {
+            writtenBytes.addAndGet(-reservedBytes);
+            logger.error("Failed to write artifact " + file, exception);
+        }
+    }
+
+    /**
+     * Writes the pending files and stops the writer thread.
+     */
+    void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Log.warn(logger, "Artifacts still waiting to be written after {} s are dropped", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
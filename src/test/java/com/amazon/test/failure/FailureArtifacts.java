@@ -0,0 +1,106 @@
+package com.amazon.test.failure;
+
+import com.amazon.test.ProjectProperties;
+import com.amazon.test.Selenium;
+import com.amazon.test.metrics.TimedChromeDriver;
+import com.amazon.test.util.Log;
+import io.cucumber.java.Scenario;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Captures the state of the browser when a scenario fails : a screenshot, the page source, the current URL and the
+ * last WebDriver commands. Artifacts of a scenario are written to a directory of {@value #ARTIFACTS_DIRECTORY}
+ * by a background {@link ArtifactWriter}, the page source being compressed, and the screenshot is attached to the
+ * execution report. Passing scenarios capture nothing.
+ * <p>
+ * The number of commands and the disk quota of the run are set by the 'FAILURE_ARTIFACT_COMMANDS' and
+ * 'FAILURE_ARTIFACT_QUOTA_MB' properties.
+ */
+public class FailureArtifacts {
+    private static final Logger logger = Logger.getLogger(FailureArtifacts.class.getCanonicalName());
+    private static final String ARTIFACTS_DIRECTORY = "reports/failures";
+    private static final String SUMMARY_FILE = "failure.txt";
+    private static final String SCREENSHOT_FILE = "screenshot.png";
+    private static final String PAGE_SOURCE_FILE = "page-source.html.gz";
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static ArtifactWriter writer;
+
+    private FailureArtifacts() {
+    }
+
+    /**
+     * Captures the artifacts of a failed scenario from the browser leased by the current thread.
+     * Artifacts which cannot be read from the browser are skipped, capture never fails the scenario hook.
+     *
+     * @param scenario failed scenario
+     */
+    public static void capture(Scenario scenario) {
+        WebDriver driver;
+        try {
+            driver = Selenium.browser();
+        } catch (IllegalStateException exception) {
+            Log.warn(logger, "No failure artifacts for scenario without browser : {}", scenario.getName());
+            return;
+        }
+        Date failureTime = new Date();
+        Path directory = Paths.get(ARTIFACTS_DIRECTORY, directoryName(scenario, failureTime));
+        StringBuilder summary = new StringBuilder()
+                .append("Scenario : ").append(scenario.getName()).append('\n')
+                .append("Location : ").append(scenario.getUri()).append(':').append(scenario.getLine()).append('\n')
+                .append("Status : ").append(scenario.getStatus()).append('\n')
+                .append("Time : ").append(String.format("%tF %<tT.%<tL", failureTime)).append('\n');
+        try {
+            summary.append("URL : ").append(driver.getCurrentUrl()).append('\n');
+        } catch (WebDriverException exception) {
+            summary.append("URL : not read, ").append(exception.getMessage()).append('\n');
+        }
+        List<String> commands = driver instanceof TimedChromeDriver
+                ? ((TimedChromeDriver) driver).getRecentCommands((int) ProjectProperties.getFailureArtifactCommandCount())
+                : Collections.emptyList();
+        summary.append("\nLast ").append(commands.size()).append(" WebDriver commands :\n");
+        for (String command : commands) summary.append(command).append('\n');
+
+        ArtifactWriter artifactWriter = writer();
+        artifactWriter.submit(directory.resolve(SUMMARY_FILE), summary.toString().getBytes(StandardCharsets.UTF_8), false);
+        try {
+            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            // PNG is already compressed
+            artifactWriter.submit(directory.resolve(SCREENSHOT_FILE), screenshot, false);
+            scenario.attach(screenshot, "image/png", SCREENSHOT_FILE);
+        } catch (WebDriverException exception) {
+            Log.warn(logger, "Screenshot not captured : {}", exception.getMessage());
+        }
+        try {
+            artifactWriter.submit(directory.resolve(PAGE_SOURCE_FILE), driver.getPageSource().getBytes(StandardCharsets.UTF_8), true);
+        } catch (WebDriverException exception) {
+            Log.warn(logger, "Page source not captured : {}", exception.getMessage());
+        }
+        Log.info(logger, "Failure artifacts of scenario '{}' written to {}", scenario.getName(), directory);
+    }
+
+    private static synchronized ArtifactWriter writer() {
+        if (writer == null) {
+            writer = new ArtifactWriter(QUEUE_CAPACITY, ProjectProperties.getFailureArtifactQuotaMegabytes() * 1024 * 1024);
+        }
+        return writer;
+    }
+
+    private static String directoryName(Scenario scenario, Date failureTime) {
+        // Scenario name and line, with the time as a scenario can fail more than once in a run
+        String name = scenario.getName().replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "");
+        return name + "-line" + scenario.getLine() + "-" + new SimpleDateFormat("HHmmss-SSS").format(failureTime);
+    }
+}
@@ -0,0 +1,194 @@
+package com.amazon.test.fixture;
+
+import com.amazon.test.util.Log;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server serving recorded pages of the website under test from a local directory.
+ * <p>
+ * In replay mode, pages are served from the fixture directory. In record mode, requests are forwarded to the live
+ * website and the pages received are saved in the fixture directory before being served.
+ * A page is stored in a file named after its URL path, e.g. '/ap/signin' is stored in 'ap/signin.html' and '/'
+ * in 'index.html'. Query parameters are not part of the file name, so all searches are served by the same
+ * recorded search results page. Only responses to GET requests are recorded, responses to other requests, e.g. form
+ * submissions, are relayed from the live website without being saved.
+ */
+public class FixtureServer {
+    private static final Logger logger = Logger.getLogger(FixtureServer.class.getCanonicalName());
+    private static final String INDEX_FILE_NAME = "index";
+    private static final String FILE_EXTENSION = ".html";
+    private static final String CONTENT_TYPE_HTML = "text/html; charset=utf-8";
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/89.0.4389.82 Safari/537.36";
+    private static final String METHOD_GET = "GET";
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_BAD_REQUEST = 400;
+    private static final int STATUS_NOT_FOUND = 404;
+    private static final int STATUS_BAD_GATEWAY = 502;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Path fixtureDirectory;
+    // Live website to record pages from or null in replay mode
+    private final String recordFromUrl;
+
+    /**
+     * Constructs a {@link FixtureServer} listening on a free local port.
+     *
+     * @param fixtureDirectory directory of the recorded pages
+     * @param recordFromUrl    base URL of the live website to record pages from or null to replay recorded pages
+     * @throws IOException if server cannot be created
+     */
+    public FixtureServer(Path fixtureDirectory, String recordFromUrl) throws IOException {
+        this.fixtureDirectory = fixtureDirectory.toAbsolutePath().normalize();
+        this.recordFromUrl = recordFromUrl == null ? null : recordFromUrl.replaceAll("/+$", "");
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        if (recordFromUrl == null) Log.info(logger, "Replaying fixtures of {} at {}", fixtureDirectory, getBaseUrl());
+        else Log.info(logger, "Recording {} into fixtures of {} at {}", recordFromUrl, fixtureDirectory, getBaseUrl());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get the base URL of the server.
+     *
+     * @return base URL ending with '/'
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getRawPath();
+            Path fixtureFile = toFixtureFile(path);
+            if (fixtureFile == null) {
+                respond(exchange, STATUS_NOT_FOUND, new byte[0]);
+                return;
+            }
+            if (recordFromUrl != null) {
+                record(exchange, fixtureFile);
+            } else if (Files.isRegularFile(fixtureFile)) {
+                respond(exchange, STATUS_OK, Files.readAllBytes(fixtureFile));
+            } else {
+                respond(exchange, STATUS_NOT_FOUND, new byte[0]);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Forwards the request with its method and body to the live website and serves the response.
+     * The page received for a GET request is saved in the fixture file, responses to other requests are not recorded.
+     */
+    private void record(HttpExchange exchange, Path fixtureFile) throws IOException {
+        String method = exchange.getRequestMethod();
+        URL liveUrl = new URL(recordFromUrl + exchange.getRequestURI().toString());
+        byte[] requestBody;
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            requestBody = readAll(inputStream);
+        }
+        HttpURLConnection connection = (HttpURLConnection) liveUrl.openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setRequestProperty("User-Agent", USER_AGENT);
+            if (requestBody.length > 0) {
+                String contentType = exchange.getRequestHeaders().getFirst(HEADER_CONTENT_TYPE);
+                if (contentType != null) connection.setRequestProperty(HEADER_CONTENT_TYPE, contentType);
+                connection.setDoOutput(true);
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(requestBody);
+                }
+            }
+            int status = connection.getResponseCode();
+            if (!METHOD_GET.equalsIgnoreCase(method)) {
+                // The response depends on the request body, so it must not replace the recorded page of the path
+                byte[] response;
+                try (InputStream inputStream = status >= STATUS_BAD_REQUEST ? connection.getErrorStream() : connection.getInputStream()) {
+                    response = inputStream == null ? new byte[0] : readAll(inputStream);
+                }
+                Log.debug(logger, "Relayed {} {} without recording - status {}", method, liveUrl, status);
+                respond(exchange, status, response);
+                return;
+            }
+            if (status != STATUS_OK) {
+                Log.warn(logger, "Not recording {} - status {}", liveUrl, status);
+                respond(exchange, STATUS_BAD_GATEWAY, new byte[0]);
+                return;
+            }
+            byte[] page;
+            try (InputStream inputStream = connection.getInputStream()) {
+                page = readAll(inputStream);
+            }
+            Files.createDirectories(fixtureFile.getParent());
+            Files.write(fixtureFile, page);
+            Log.debug(logger, "Recorded {} in {}", liveUrl, fixtureFile);
+            respond(exchange, STATUS_OK, page);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Maps a URL path to the fixture file storing the page.
+     *
+     * @param path URL path
+     * @return fixture file or null if path points outside the fixture directory
+     */
+    private Path toFixtureFile(String path) {
+        String relativePath = path.replaceAll("^/+|/+$", "");
+        if (relativePath.isEmpty()) relativePath = INDEX_FILE_NAME;
+        Path fixtureFile = fixtureDirectory.resolve(relativePath + FILE_EXTENSION).normalize();
+        return fixtureFile.startsWith(fixtureDirectory) ? fixtureFile : null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set(HEADER_CONTENT_TYPE, CONTENT_TYPE_HTML);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        }
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+package com.amazon.test.impact;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Framework classes reachable from a class, read from the constant pools of the compiled classes.
+ * A class can only execute the code of the classes its constant pool refers to, so the classes reachable from the
+ * classes a scenario is recorded to execute include the helpers it calls between WebDriver commands, e.g. PageType,
+ * which are never on the stack of a WebDriver command.
+ */
+class ClassReferences {
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final int TAG_UTF8 = 1;
+    private static final int TAG_LONG = 5;
+    private static final int TAG_DOUBLE = 6;
+    // Internal names of the framework classes in class names and descriptors, e.g. 'Lcom/amazon/test/Selenium;'
+    private static final Pattern FRAMEWORK_CLASS_NAME = Pattern.compile("com/amazon/test/[\\w/$]+");
+    // Framework classes referred to by each class, by binary name
+    private static final Map<String, Set<String>> references = new ConcurrentHashMap<>();
+
+    private ClassReferences() {
+    }
+
+    /**
+     * Get the framework classes reachable from given classes, following the references of their constant pools.
+     *
+     * @param classNames names of the classes
+     * @return names of the top level framework classes reachable from the classes, including the classes
+     */
+    static Set<String> reachableFrom(Collection<String> classNames) {
+        Set<String> visited = new HashSet<>();
+        Deque<String> toVisit = new ArrayDeque<>(classNames);
+        Set<String> reachable = new TreeSet<>();
+        while (!toVisit.isEmpty()) {
+            String className = toVisit.pop();
+            if (!visited.add(className)) continue;
+            reachable.add(ImpactRecorder.topLevelClassName(className));
+            for (String reference : references.computeIfAbsent(className, ClassReferences::readReferences)) {
+                if (!visited.contains(reference)) toVisit.push(reference);
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Reads the framework classes referred to by the constant pool of a class.
+     *
+     * @param className binary name of the class
+     * @return binary names of the framework classes, or empty set if the class file is not found
+     */
+    private static Set<String> readReferences(String className) {
+        InputStream classFile = ClassReferences.class.getClassLoader().getResourceAsStream(className.replace('.', '/') + ".class");
+        if (classFile == null) return Collections.emptySet();
+        Set<String> classReferences = new HashSet<>();
+        try (DataInputStream input = new DataInputStream(classFile)) {
+            if (input.readInt() != CLASS_FILE_MAGIC) return Collections.emptySet();
+            // Skip the class file version
+            input.readInt();
+            int constantCount = input.readUnsignedShort();
+            for (int index = 1; index < constantCount; index++) {
+                int tag = input.readUnsignedByte();
+                if (tag == TAG_UTF8) {
+                    Matcher matcher = FRAMEWORK_CLASS_NAME.matcher(input.readUTF());
+                    while (matcher.find()) {
+                        String reference = matcher.group().replace('/', '.');
+                        if (ImpactRecorder.isFrameworkClass(reference)) classReferences.add(reference);
+                    }
+                } else {
+                    input.skipBytes(constantSize(tag));
+                    // Long and double constants take two entries of the pool
+                    if (tag == TAG_LONG || tag == TAG_DOUBLE) index++;
+                }
+            }
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to read class file of " + className, exception);
+        }
+        return classReferences;
+    }
+
+    private static int constantSize(int tag) {
+        switch (tag) {
+            case 7: // Class
+            case 8: // String
+            case 16: // MethodType
+            case 19: // Module
+            case 20: // Package
+                return 2;
+            case 15: // MethodHandle
+                return 3;
+            case 3: // Integer
+            case 4: // Float
+            case 9: // Fieldref
+            case 10: // Methodref
+            case 11: // InterfaceMethodref
+            case 12: // NameAndType
+            case 17: // Dynamic
+            case 18: // InvokeDynamic
+                return 4;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return 8;
+            default:
+                throw new IllegalStateException("Unknown constant pool tag " + tag);
+        }
+    }
+}
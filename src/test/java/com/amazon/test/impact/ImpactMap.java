@@ -0,0 +1,95 @@
+package com.amazon.test.impact;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Dependencies of the scenarios by scenario location, i.e. feature file path relative to the project directory and
+ * line, and the properties the whole run depends on. The map is saved as JSON between runs.
+ */
+class ImpactMap {
+    private static final String KEY_SCENARIOS = "scenarios";
+    private static final String KEY_RUN_PROPERTIES = "runProperties";
+    private static final String KEY_NAME = "name";
+    private static final String KEY_CLASSES = "classes";
+    private static final String KEY_PROPERTIES = "properties";
+
+    private final Map<String, ScenarioDependencies> scenarios = new TreeMap<>();
+    private final Set<String> runProperties = new TreeSet<>();
+
+    /**
+     * Reads a saved map.
+     *
+     * @param file JSON file of the map
+     * @return saved map or empty map if file does not exist
+     * @throws IOException if file cannot be read
+     */
+    static ImpactMap read(Path file) throws IOException {
+        ImpactMap impactMap = new ImpactMap();
+        if (!Files.exists(file)) return impactMap;
+        Map<String, Object> content;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            content = new Json().toType(reader, Json.MAP_TYPE);
+        }
+        impactMap.runProperties.addAll(strings(content.get(KEY_RUN_PROPERTIES)));
+        Object scenarios = content.get(KEY_SCENARIOS);
+        if (scenarios instanceof Map) {
+            for (Map.Entry<?, ?> scenario : ((Map<?, ?>) scenarios).entrySet()) {
+                Map<?, ?> dependencies = (Map<?, ?>) scenario.getValue();
+                impactMap.scenarios.put(scenario.getKey().toString(), new ScenarioDependencies(String.valueOf(dependencies.get(KEY_NAME)),
+                        new TreeSet<>(strings(dependencies.get(KEY_CLASSES))), new TreeSet<>(strings(dependencies.get(KEY_PROPERTIES)))));
+            }
+        }
+        return impactMap;
+    }
+
+    /**
+     * Saves the map.
+     *
+     * @param file JSON file of the map
+     * @throws IOException if file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Map<String, Object> scenarioContent = new LinkedHashMap<>();
+        for (Map.Entry<String, ScenarioDependencies> scenario : scenarios.entrySet()) {
+            Map<String, Object> dependencies = new LinkedHashMap<>();
+            dependencies.put(KEY_NAME, scenario.getValue().getName());
+            dependencies.put(KEY_CLASSES, scenario.getValue().getClasses());
+            dependencies.put(KEY_PROPERTIES, scenario.getValue().getProperties());
+            scenarioContent.put(scenario.getKey(), dependencies);
+        }
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put(KEY_RUN_PROPERTIES, runProperties);
+        content.put(KEY_SCENARIOS, scenarioContent);
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.write(file, new Json().toJson(content).getBytes(StandardCharsets.UTF_8));
+    }
+
+    Map<String, ScenarioDependencies> getScenarios() {
+        return this.scenarios;
+    }
+
+    Set<String> getRunProperties() {
+        return this.runProperties;
+    }
+
+    private static Collection<String> strings(Object values) {
+        TreeSet<String> strings = new TreeSet<>();
+        if (values instanceof List) {
+            for (Object value : (List<?>) values) strings.add(String.valueOf(value));
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,133 @@
+package com.amazon.test.impact;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the dependencies of the scenarios executed while an {@link ImpactRecorderPlugin} is registered : the framework
+ * classes on the stack of every WebDriver command and the project properties read. As helpers executed between
+ * WebDriver commands are not on their stack, the classes reachable from the recorded classes are added to the
+ * dependencies of a scenario when it finishes, see {@link ClassReferences}.
+ * Classes are only recorded while a scenario is started on the calling thread, so that the stack of a command is not
+ * taken when recording is not enabled.
+ * <p>
+ * Properties read by no scenario, e.g. before the first scenario or by the browser pool threads, read once for the
+ * whole run by a static initializer or read to start a pooled browser are recorded as dependencies of the run, as they
+ * may affect any scenario.
+ */
+public class ImpactRecorder {
+    private static final String FRAMEWORK_PACKAGE = "com.amazon.test.";
+    // Instrumentation packages, which do not affect the outcome of scenarios
+    private static final String[] EXCLUDED_PACKAGES = {"com.amazon.test.metrics.", "com.amazon.test.impact."};
+    private static final String STATIC_INITIALIZER = "<clinit>";
+    // Browsers are shared by the scenarios, whichever scenario leases the pool when a browser is started
+    private static final String BROWSER_POOL_CLASS = "com.amazon.test.BrowserPool";
+    private static final ThreadLocal<ScenarioDependencies> scenario = new ThreadLocal<>();
+    private static final Set<String> runProperties = ConcurrentHashMap.newKeySet();
+    private static volatile boolean enabled;
+
+    private ImpactRecorder() {
+    }
+
+    /**
+     * Starts recording the project properties read by the run.
+     */
+    static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Starts recording the dependencies of a scenario on the current thread.
+     *
+     * @param name name of the scenario
+     */
+    static void start(String name) {
+        scenario.set(new ScenarioDependencies(name));
+    }
+
+    /**
+     * Records a class the scenario recorded on the current thread depends on, e.g. the class of a step definition.
+     *
+     * @param className name of the class
+     */
+    static void recordClass(String className) {
+        ScenarioDependencies dependencies = scenario.get();
+        if (dependencies != null) dependencies.getClasses().add(topLevelClassName(className));
+    }
+
+    /**
+     * Determines whether the scenario of the current thread is recorded, i.e. whether its commands need a stack.
+     *
+     * @return true if a scenario is started on the current thread otherwise false
+     */
+    public static boolean isRecording() {
+        return scenario.get() != null;
+    }
+
+    /**
+     * Records the framework classes calling the WebDriver command sent by the current thread if its scenario is recorded.
+     *
+     * @param stack stack of the thread sending the command, only null if the scenario is not recorded
+     */
+    public static void recordCallers(StackTraceElement[] stack) {
+        ScenarioDependencies dependencies = scenario.get();
+        if (dependencies == null) return;
+        for (StackTraceElement frame : stack) {
+            if (isFrameworkClass(frame.getClassName())) dependencies.getClasses().add(topLevelClassName(frame.getClassName()));
+        }
+    }
+
+    /**
+     * Records a project property read by the current thread.
+     *
+     * @param key property key
+     */
+    public static void recordProperty(String key) {
+        if (!enabled) return;
+        ScenarioDependencies dependencies = scenario.get();
+        if (dependencies == null || isRunWideRead()) runProperties.add(key);
+        else dependencies.getProperties().add(key);
+    }
+
+    /**
+     * Stops recording the current thread.
+     *
+     * @return dependencies of the scenario or null if no scenario was started
+     */
+    static ScenarioDependencies finish() {
+        ScenarioDependencies dependencies = scenario.get();
+        scenario.remove();
+        if (dependencies != null) dependencies.getClasses().addAll(ClassReferences.reachableFrom(new ArrayList<>(dependencies.getClasses())));
+        return dependencies;
+    }
+
+    /**
+     * Get the properties the whole run depends on.
+     *
+     * @return property keys
+     */
+    static Set<String> getRunProperties() {
+        return runProperties;
+    }
+
+    private static boolean isRunWideRead() {
+        for (StackTraceElement frame : Thread.currentThread().getStackTrace()) {
+            if (STATIC_INITIALIZER.equals(frame.getMethodName()) || BROWSER_POOL_CLASS.equals(frame.getClassName())) return true;
+        }
+        return false;
+    }
+
+    static boolean isFrameworkClass(String className) {
+        if (!className.startsWith(FRAMEWORK_PACKAGE)) return false;
+        for (String excludedPackage : EXCLUDED_PACKAGES) {
+            if (className.startsWith(excludedPackage)) return false;
+        }
+        return true;
+    }
+
+    static String topLevelClassName(String className) {
+        int nestedClassIndex = className.indexOf('$');
+        return nestedClassIndex < 0 ? className : className.substring(0, nestedClassIndex);
+    }
+}
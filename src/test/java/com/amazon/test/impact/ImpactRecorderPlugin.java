@@ -0,0 +1,148 @@
+package com.amazon.test.impact;
+
+import com.amazon.test.util.Log;
+import io.cucumber.messages.Messages;
+import io.cucumber.messages.Messages.GherkinDocument.Feature;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cucumber plugin recording the dependencies of every scenario with {@link ImpactRecorder}, i.e. the classes of the
+ * step definitions and hooks it executes, the framework classes sending its WebDriver commands, the framework classes
+ * reachable from them and the project properties it reads. At the end of the run, the dependencies are saved in the {@link ImpactMap} JSON file given as
+ * plugin argument, e.g. 'com.amazon.test.impact.ImpactRecorderPlugin:reports/impact-map.json', replacing the
+ * dependencies of the scenarios executed and keeping the others, so that partial runs keep the map complete.
+ * Scenarios of the map which are not in their feature file anymore, e.g. moved or removed scenarios of a feature file
+ * read by the run or scenarios of a removed feature file, are dropped.
+ * The map is used by {@link ImpactSelector} to select the scenarios affected by a change.
+ */
+public class ImpactRecorderPlugin implements ConcurrentEventListener {
+    private static final Logger logger = Logger.getLogger(ImpactRecorderPlugin.class.getCanonicalName());
+    private static final Path PROJECT_DIRECTORY = Paths.get("").toAbsolutePath();
+
+    private final Path outputFile;
+    private final Map<String, ScenarioDependencies> scenarios = new ConcurrentHashMap<>();
+    // Lines of the scenarios and Examples rows by path of the feature files read by the run
+    private final Map<String, Set<Integer>> featureScenarioLines = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an {@link ImpactRecorderPlugin}.
+     *
+     * @param outputFile path of the JSON impact map
+     */
+    public ImpactRecorderPlugin(String outputFile) {
+        this.outputFile = Paths.get(outputFile);
+        // Properties read before the first scenario, e.g. by the browser warm-up, are dependencies of the run
+        ImpactRecorder.enable();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(Messages.Envelope.class, this::onMessage);
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> ImpactRecorder.start(event.getTestCase().getName()));
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onScenarioFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeMap());
+    }
+
+    private void onMessage(Messages.Envelope envelope) {
+        if (!envelope.hasGherkinDocument()) return;
+        Messages.GherkinDocument document = envelope.getGherkinDocument();
+        featureScenarioLines.put(path(URI.create(document.getUri())), scenarioLines(document.getFeature()));
+    }
+
+    private void onStepStarted(TestStepStarted event) {
+        // Code location of steps and hooks is the method, e.g. 'com.amazon.test.stepDefinitions.Common.pageIsLoaded()'
+        String codeLocation = event.getTestStep().getCodeLocation();
+        int methodIndex = codeLocation.lastIndexOf('.', codeLocation.indexOf('(') < 0 ? codeLocation.length() : codeLocation.indexOf('('));
+        if (methodIndex > 0) ImpactRecorder.recordClass(codeLocation.substring(0, methodIndex));
+    }
+
+    private void onScenarioFinished(TestCaseFinished event) {
+        ScenarioDependencies dependencies = ImpactRecorder.finish();
+        if (dependencies != null) scenarios.put(location(event.getTestCase()), dependencies);
+    }
+
+    /**
+     * Get the location of a scenario, feature file path relative to the project directory and line of the scenario
+     * or of its Examples row, e.g. 'src/test/resources/features/Search.feature:13'.
+     *
+     * @param testCase scenario
+     * @return location of the scenario
+     */
+    static String location(TestCase testCase) {
+        return path(testCase.getUri()) + ":" + testCase.getLocation().getLine();
+    }
+
+    private static String path(URI uri) {
+        return "file".equals(uri.getScheme())
+                ? PROJECT_DIRECTORY.relativize(Paths.get(uri)).toString().replace('\\', '/')
+                : uri.toString();
+    }
+
+    /**
+     * Get the lines of the scenarios of a feature, the lines of the Examples rows for a Scenario Outline.
+     */
+    private static Set<Integer> scenarioLines(Feature feature) {
+        Set<Integer> lines = new HashSet<>();
+        for (Feature.FeatureChild child : feature.getChildrenList()) {
+            if (child.hasRule()) {
+                for (Feature.FeatureChild.RuleChild ruleChild : child.getRule().getChildrenList()) {
+                    if (ruleChild.hasScenario()) addScenarioLines(lines, ruleChild.getScenario());
+                }
+            }
+            if (child.hasScenario()) addScenarioLines(lines, child.getScenario());
+        }
+        return lines;
+    }
+
+    private static void addScenarioLines(Set<Integer> lines, Feature.Scenario scenario) {
+        if (scenario.getExamplesCount() == 0) lines.add(scenario.getLocation().getLine());
+        for (Feature.Scenario.Examples examples : scenario.getExamplesList()) {
+            for (Feature.TableRow row : examples.getTableBodyList()) lines.add(row.getLocation().getLine());
+        }
+    }
+
+    /**
+     * Determines whether a scenario of the map is not in its feature file anymore.
+     *
+     * @param location location of the scenario in the map
+     * @return true if the feature file is removed or is read by the run without a scenario at this line
+     */
+    private boolean isRemoved(String location) {
+        int lineIndex = location.lastIndexOf(':');
+        String featureFile = location.substring(0, lineIndex);
+        Set<Integer> lines = featureScenarioLines.get(featureFile);
+        if (lines != null) return !lines.contains(Integer.valueOf(location.substring(lineIndex + 1)));
+        return !featureFile.contains(":") && !Files.exists(Paths.get(featureFile));
+    }
+
+    private void writeMap() {
+        try {
+            ImpactMap impactMap = ImpactMap.read(outputFile);
+            impactMap.getScenarios().keySet().removeIf(this::isRemoved);
+            impactMap.getScenarios().putAll(scenarios);
+            impactMap.getRunProperties().addAll(ImpactRecorder.getRunProperties());
+            impactMap.write(outputFile);
+            Log.info(logger, "Dependencies of {} scenarios written to {}", scenarios.size(), outputFile);
+        } catch (IOException exception) {
+            logger.error("Failed to write impact map to " + outputFile, exception);
+        }
+    }
+}
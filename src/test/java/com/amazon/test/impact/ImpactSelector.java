@@ -0,0 +1,187 @@
+package com.amazon.test.impact;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Runs the scenarios affected by the changes made since a git baseline, according to the dependencies recorded in the
+ * {@link ImpactMap} by the previous runs, and records their dependencies again.
+ * <p>
+ * A scenario is affected if its feature file, a class it depends on or a project property it reads changed.
+ * All scenarios are run if there is no baseline or impact map, or if a change cannot be attributed to scenarios, e.g.
+ * a change of the build, of a resource other than the features and project properties, of a class no scenario was
+ * recorded to depend on or of a property read for the whole run or recorded as read by no scenario. Documentation and benchmark changes affect no scenario.
+ * <p>
+ * Usage : ImpactSelector &lt;impact map&gt; &lt;baseline, empty to run all scenarios&gt; &lt;features directory&gt;
+ */
+public class ImpactSelector {
+    private static final String GLUE = "com.amazon.test.stepDefinitions";
+    private static final String SOURCE_DIRECTORY = "src/test/java/";
+    private static final String PROPERTIES_FILE = "src/test/resources/project.properties";
+    // Packages running the scenarios, whose changes do not affect the outcome of scenarios
+    private static final List<String> RUNNER_PACKAGES = Arrays.asList("com.amazon.test.impact.", "com.amazon.test.shard.");
+
+    private ImpactSelector() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage : ImpactSelector <impact map> <baseline, empty to run all scenarios> <features directory>");
+            System.exit(2);
+        }
+        Path mapFile = Paths.get(args[0]);
+        String baseline = args[1].trim();
+        String featuresDirectory = args[2];
+        Collection<String> scenarios = null;
+        if (baseline.isEmpty()) {
+            System.out.println("No baseline, running all scenarios");
+        } else if (!Files.exists(mapFile)) {
+            System.out.println("No impact map at " + mapFile + ", running all scenarios");
+        } else {
+            try {
+                scenarios = select(ImpactMap.read(mapFile), changedFiles(baseline), changedProperties(baseline));
+            } catch (IOException exception) {
+                System.out.println("Changes since " + baseline + " not read, running all scenarios : " + exception.getMessage());
+            }
+        }
+        if (scenarios != null && scenarios.isEmpty()) {
+            System.out.println("No scenario affected by the changes since " + baseline);
+            System.exit(0);
+        }
+        if (scenarios != null) System.out.println("Running " + scenarios.size() + " scenarios affected by the changes since " + baseline + " : " + scenarios);
+
+        List<String> cucumberArgs = new ArrayList<>(Arrays.asList(
+                "--plugin", "pretty",
+                "--plugin", "html:reports/cucumber-tests.html",
+                "--plugin", "com.amazon.test.metrics.StepTimingPlugin:reports/step-timings",
+                "--plugin", "com.amazon.test.impact.ImpactRecorderPlugin:" + mapFile,
+                "--glue", GLUE));
+        if (scenarios == null) cucumberArgs.add(featuresDirectory);
+        else cucumberArgs.addAll(scenarios);
+        byte exitStatus = io.cucumber.core.cli.Main.run(cucumberArgs.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+        System.exit(exitStatus);
+    }
+
+    /**
+     * Selects the scenarios affected by changes.
+     *
+     * @param impactMap         recorded dependencies of the scenarios
+     * @param changedFiles      paths of the changed files relative to the project directory
+     * @param changedProperties keys of the changed project properties
+     * @return locations of the affected scenarios, or null if all scenarios must run
+     */
+    static Collection<String> select(ImpactMap impactMap, Collection<String> changedFiles, Collection<String> changedProperties) {
+        Set<String> scenarios = new TreeSet<>();
+        for (String changedFile : changedFiles) {
+            if (changedFile.endsWith(".md") || changedFile.startsWith("src/jmh/")) continue;
+            if (changedFile.endsWith(".feature")) {
+                // Lines of the scenarios may have moved, the whole feature is run
+                if (Files.exists(Paths.get(changedFile))) scenarios.add(changedFile);
+            } else if (changedFile.startsWith(SOURCE_DIRECTORY) && changedFile.endsWith(".java")) {
+                String className = changedFile.substring(SOURCE_DIRECTORY.length(), changedFile.length() - ".java".length()).replace('/', '.');
+                if (RUNNER_PACKAGES.stream().anyMatch(className::startsWith)) continue;
+                if (!addDependents(impactMap, scenarios, dependencies -> dependencies.getClasses().contains(className))) {
+                    System.out.println(className + " changed but no scenario is recorded to depend on it");
+                    return null;
+                }
+            } else if (!changedFile.equals(PROPERTIES_FILE)) {
+                System.out.println(changedFile + " changed");
+                return null;
+            }
+        }
+        for (String changedProperty : changedProperties) {
+            if (impactMap.getRunProperties().contains(changedProperty)) {
+                System.out.println("Property " + changedProperty + " of the whole run changed");
+                return null;
+            }
+            if (!addDependents(impactMap, scenarios, dependencies -> dependencies.getProperties().contains(changedProperty))) {
+                System.out.println("Property " + changedProperty + " changed but no scenario is recorded to read it");
+                return null;
+            }
+        }
+        return scenarios;
+    }
+
+    private static boolean addDependents(ImpactMap impactMap, Set<String> scenarios, Predicate<ScenarioDependencies> dependsOnChange) {
+        boolean found = false;
+        for (Map.Entry<String, ScenarioDependencies> scenario : impactMap.getScenarios().entrySet()) {
+            if (!dependsOnChange.test(scenario.getValue())) continue;
+            found = true;
+            // Scenarios of removed feature files are not run
+            String featureFile = scenario.getKey().substring(0, scenario.getKey().lastIndexOf(':'));
+            if (Files.exists(Paths.get(featureFile))) scenarios.add(scenario.getKey());
+        }
+        return found;
+    }
+
+    /**
+     * Get the files changed since the baseline, committed or not, and the new files.
+     */
+    private static Set<String> changedFiles(String baseline) throws IOException {
+        Set<String> changedFiles = new TreeSet<>();
+        changedFiles.addAll(Arrays.asList(new String(git("diff", "--name-only", baseline), StandardCharsets.UTF_8).split("\n")));
+        changedFiles.addAll(Arrays.asList(new String(git("ls-files", "--others", "--exclude-standard"), StandardCharsets.UTF_8).split("\n")));
+        changedFiles.remove("");
+        return changedFiles;
+    }
+
+    /**
+     * Get the keys of the project properties added, removed or changed since the baseline.
+     */
+    private static Set<String> changedProperties(String baseline) throws IOException {
+        Properties baselineProperties = new Properties();
+        try {
+            baselineProperties.load(new ByteArrayInputStream(git("show", baseline + ":" + PROPERTIES_FILE)));
+        } catch (IOException exception) {
+            // File did not exist in the baseline
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(Paths.get(PROPERTIES_FILE))) {
+            properties.load(inputStream);
+        }
+        Set<String> keys = new HashSet<>(baselineProperties.stringPropertyNames());
+        keys.addAll(properties.stringPropertyNames());
+        Set<String> changedKeys = new TreeSet<>();
+        for (String key : keys) {
+            if (!Objects.equals(baselineProperties.getProperty(key), properties.getProperty(key))) changedKeys.add(key);
+        }
+        return changedKeys;
+    }
+
+    private static byte[] git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream inputStream = process.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) output.write(buffer, 0, read);
+        }
+        try {
+            if (process.waitFor() != 0) throw new IOException("git " + String.join(" ", args) + " failed with exit code " + process.exitValue());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", exception);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.amazon.test.impact;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImpactSelectorTest {
+    private static final String LOGIN_FEATURE = "src/test/resources/features/Login.feature";
+    private static final String SEARCH_FEATURE = "src/test/resources/features/Search.feature";
+    private static final String LOGIN_SCENARIO = LOGIN_FEATURE + ":22";
+    private static final String SEARCH_SCENARIO = SEARCH_FEATURE + ":13";
+
+    private ImpactMap impactMap;
+
+    @Before
+    public void recordScenarios() {
+        impactMap = new ImpactMap();
+        impactMap.getScenarios().put(LOGIN_SCENARIO, new ScenarioDependencies("login",
+                new TreeSet<>(Arrays.asList("com.amazon.test.stepDefinitions.Common", "com.amazon.test.stepDefinitions.Login")),
+                new TreeSet<>(Arrays.asList("HOME_URL", "USER_EMAIL"))));
+        impactMap.getScenarios().put(SEARCH_SCENARIO, new ScenarioDependencies("search",
+                new TreeSet<>(Arrays.asList("com.amazon.test.stepDefinitions.Common", "com.amazon.test.stepDefinitions.Search")),
+                new TreeSet<>(Collections.singletonList("HOME_URL"))));
+        impactMap.getScenarios().put("src/test/resources/features/Removed.feature:4", new ScenarioDependencies("removed",
+                new TreeSet<>(Collections.singletonList("com.amazon.test.stepDefinitions.Login")), new TreeSet<>()));
+        impactMap.getRunProperties().add("BLOCKED_URL_PATTERNS");
+    }
+
+    @Test
+    public void changedFeatureSelectsWholeFeature() {
+        assertEquals(Collections.singletonList(SEARCH_FEATURE), select(files(SEARCH_FEATURE), files()));
+    }
+
+    @Test
+    public void changedClassSelectsDependentScenarios() {
+        assertEquals(Collections.singletonList(LOGIN_SCENARIO), select(files("src/test/java/com/amazon/test/stepDefinitions/Login.java"), files()));
+        assertEquals(Arrays.asList(LOGIN_SCENARIO, SEARCH_SCENARIO),
+                select(files("src/test/java/com/amazon/test/stepDefinitions/Common.java"), files()));
+    }
+
+    @Test
+    public void changedUnrecordedClassRunsAll() {
+        assertNull(select(files("src/test/java/com/amazon/test/web/NewHelper.java"), files()));
+    }
+
+    @Test
+    public void changedRunnerClassSelectsNothing() {
+        assertEquals(Collections.emptyList(), select(files("src/test/java/com/amazon/test/shard/ShardedRun.java"), files()));
+    }
+
+    @Test
+    public void changedDocumentationSelectsNothing() {
+        assertEquals(Collections.emptyList(), select(files("README.md", "src/jmh/java/com/amazon/test/util/TextSearchBenchmark.java"), files()));
+    }
+
+    @Test
+    public void changedBuildRunsAll() {
+        assertNull(select(files("build.gradle"), files()));
+    }
+
+    @Test
+    public void changedPropertySelectsReadingScenarios() {
+        assertEquals(Collections.singletonList(LOGIN_SCENARIO), select(files("src/test/resources/project.properties"), files("USER_EMAIL")));
+    }
+
+    @Test
+    public void changedRunPropertyRunsAll() {
+        assertNull(select(files("src/test/resources/project.properties"), files("BLOCKED_URL_PATTERNS")));
+    }
+
+    @Test
+    public void changedUnrecordedPropertyRunsAll() {
+        assertNull(select(files("src/test/resources/project.properties"), files("RESOURCE_BLOCKING")));
+    }
+
+    @Test
+    public void helperClassesAreReachableFromStepDefinitions() {
+        // Helpers called between WebDriver commands are never recorded on the stack of a command
+        Collection<String> classes = ClassReferences.reachableFrom(Collections.singletonList("com.amazon.test.stepDefinitions.Common"));
+        assertTrue(classes.contains("com.amazon.test.web.page.PageType"));
+        assertTrue(classes.contains("com.amazon.test.web.page.PageUrl"));
+        assertFalse(classes.contains("com.amazon.test.metrics.TimedChromeDriver"));
+    }
+
+    private Collection<String> select(Collection<String> changedFiles, Collection<String> changedProperties) {
+        Collection<String> scenarios = ImpactSelector.select(impactMap, changedFiles, changedProperties);
+        return scenarios == null ? null : Arrays.asList(scenarios.toArray(new String[0]));
+    }
+
+    private static Collection<String> files(String... paths) {
+        return Arrays.asList(paths);
+    }
+}
@@ -0,0 +1,35 @@
+package com.amazon.test.impact;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Framework classes and project properties a scenario depends on.
+ */
+class ScenarioDependencies {
+    private final String name;
+    private final Set<String> classes;
+    private final Set<String> properties;
+
+    ScenarioDependencies(String name) {
+        this(name, new TreeSet<>(), new TreeSet<>());
+    }
+
+    ScenarioDependencies(String name, Set<String> classes, Set<String> properties) {
+        this.name = name;
+        this.classes = classes;
+        this.properties = properties;
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    Set<String> getClasses() {
+        return this.classes;
+    }
+
+    Set<String> getProperties() {
+        return this.properties;
+    }
+}
@@ -0,0 +1,198 @@
+package com.amazon.test.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile of the WebDriver commands sent by one scenario, recorded by {@link CommandProfiler}.
+ * Commands are grouped by step and, within a step, by call site - the framework code line which sent them.
+ * Every framework method on the stack of a command is also charged with it, so the profile tells how many
+ * commands a method such as 'WebButton.click' sends, including the commands of the methods it calls.
+ * <p>
+ * A profile is confined to the thread executing its scenario.
+ */
+public class CommandProfile {
+    // Framework code, as opposed to selenium, cucumber and JDK code
+    private static final String FRAMEWORK_PACKAGE = "com.amazon.test.";
+    private static final String METRICS_PACKAGE = "com.amazon.test.metrics.";
+    private static final String UNKNOWN_CALLER = "(unknown)";
+
+    private final String scenario;
+    private final String location;
+    private final List<Step> steps = new ArrayList<>();
+    private final LinkedHashMap<String, Usage> methods = new LinkedHashMap<>();
+    private Step currentStep;
+
+    CommandProfile(String scenario, String location) {
+        this.scenario = scenario;
+        this.location = location;
+    }
+
+    void startStep(String text) {
+        currentStep = new Step(text);
+        steps.add(currentStep);
+    }
+
+    /**
+     * Records a command sent by the scenario.
+     *
+     * @param command      WebDriver command name
+     * @param elementId    id of the element the command applies to or null for a driver command
+     * @param elapsedNanos time taken by the command round trip
+     * @param stack        stack of the thread sending the command
+     */
+    void record(String command, String elementId, long elapsedNanos, StackTraceElement[] stack) {
+        if (currentStep == null) startStep("(before first step)");
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        String caller = UNKNOWN_CALLER;
+        HashSet<String> chargedMethods = new HashSet<>();
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith(FRAMEWORK_PACKAGE) || className.startsWith(METRICS_PACKAGE)) continue;
+            String method = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+            if (caller == UNKNOWN_CALLER) caller = method + ":" + frame.getLineNumber();
+            // A recursive method is charged once
+            if (chargedMethods.add(method)) methods.computeIfAbsent(method, key -> new Usage()).add(micros, elementId);
+        }
+        currentStep.usage.add(micros, elementId);
+        currentStep.callSites.computeIfAbsent(new CallSite(caller, command), key -> new Usage()).add(micros, elementId);
+    }
+
+    public String getScenario() {
+        return this.scenario;
+    }
+
+    public String getLocation() {
+        return this.location;
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(this.steps);
+    }
+
+    /**
+     * Get the commands charged to every framework method which sent commands, directly or through the methods it calls.
+     *
+     * @return command usage by method, e.g. 'WebButton.click'
+     */
+    public Map<String, Usage> getMethods() {
+        return Collections.unmodifiableMap(this.methods);
+    }
+
+    /**
+     * Get the N+1 patterns of the scenario : call sites which sent the same command to at least the given number of
+     * distinct elements within one step, typically an element command sent in a loop over the elements of a page
+     * which a single script execution could replace.
+     *
+     * @param threshold minimum number of distinct elements
+     * @return descriptions of the N+1 patterns found
+     */
+    public List<String> findNPlusOnePatterns(int threshold) {
+        List<String> patterns = new ArrayList<>();
+        for (Step step : steps) {
+            for (Map.Entry<CallSite, Usage> callSite : step.callSites.entrySet()) {
+                int elementCount = callSite.getValue().elementIds.size();
+                if (elementCount >= threshold) {
+                    patterns.add(callSite.getKey() + " sent " + callSite.getValue().count + " commands to " + elementCount
+                            + " elements in step '" + step.text + "'");
+                }
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Commands sent by a step.
+     */
+    public static class Step {
+        private final String text;
+        private final Usage usage = new Usage();
+        private final LinkedHashMap<CallSite, Usage> callSites = new LinkedHashMap<>();
+
+        private Step(String text) {
+            this.text = text;
+        }
+
+        public String getText() {
+            return this.text;
+        }
+
+        public Usage getUsage() {
+            return this.usage;
+        }
+
+        public Map<CallSite, Usage> getCallSites() {
+            return Collections.unmodifiableMap(this.callSites);
+        }
+    }
+
+    /**
+     * A command sent from a framework code line.
+     */
+    public static class CallSite {
+        private final String caller;
+        private final String command;
+
+        private CallSite(String caller, String command) {
+            this.caller = caller;
+            this.command = command;
+        }
+
+        public String getCaller() {
+            return this.caller;
+        }
+
+        public String getCommand() {
+            return this.command;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof CallSite)) return false;
+            return this.caller.equals(((CallSite) other).caller) && this.command.equals(((CallSite) other).command);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * caller.hashCode() + command.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return caller + " [" + command + "]";
+        }
+    }
+
+    /**
+     * Number, total latency and distinct target elements of a group of commands.
+     */
+    public static class Usage {
+        private final HashSet<String> elementIds = new HashSet<>();
+        private long count;
+        private long totalMicros;
+
+        private void add(long micros, String elementId) {
+            count++;
+            totalMicros += micros;
+            if (elementId != null) elementIds.add(elementId);
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getTotalMicros() {
+            return this.totalMicros;
+        }
+
+        public int getElementCount() {
+            return this.elementIds.size();
+        }
+    }
+}
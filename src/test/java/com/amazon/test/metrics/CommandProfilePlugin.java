@@ -0,0 +1,151 @@
+package com.amazon.test.metrics;
+
+import com.amazon.test.util.Log;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.amazon.test.metrics.ReportFormat.json;
+import static com.amazon.test.metrics.ReportFormat.millis;
+
+/**
+ * Cucumber plugin profiling the WebDriver commands sent by every scenario with {@link CommandProfiler}.
+ * N+1 patterns found in a scenario are logged as warnings when it finishes. At the end of the run, the profiles of
+ * all scenarios and the commands charged to every framework method over the run are written in the JSON file given
+ * as plugin argument, e.g. 'com.amazon.test.metrics.CommandProfilePlugin:reports/command-profile.json'.
+ * As the stack of every WebDriver command is taken, the plugin is not registered by default. It is registered with the
+ * 'cucumber.plugin' system property, e.g. '-Dcucumber.plugin=com.amazon.test.metrics.CommandProfilePlugin:reports/command-profile.json'.
+ */
+public class CommandProfilePlugin implements ConcurrentEventListener {
+    private static final Logger logger = Logger.getLogger(CommandProfilePlugin.class.getCanonicalName());
+    // Minimum number of distinct elements a call site sends the same command to within a step to be an N+1 pattern
+    private static final int N_PLUS_ONE_THRESHOLD = 5;
+
+    private final String outputFile;
+    private final ConcurrentLinkedQueue<String> scenarioProfiles = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> nPlusOnePatterns = new ConcurrentLinkedQueue<>();
+    // Commands count and total latency in microseconds by framework method over the run
+    private final ConcurrentHashMap<String, long[]> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@link CommandProfilePlugin}.
+     *
+     * @param outputFile path of the JSON report
+     */
+    public CommandProfilePlugin(String outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onScenarioStarted);
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, event -> onScenarioFinished());
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeReport());
+    }
+
+    private void onScenarioStarted(TestCaseStarted event) {
+        TestCase testCase = event.getTestCase();
+        CommandProfiler.start(testCase.getName(), testCase.getUri() + ":" + testCase.getLocation().getLine());
+    }
+
+    private void onStepStarted(TestStepStarted event) {
+        TestStep testStep = event.getTestStep();
+        if (testStep instanceof PickleStepTestStep) {
+            PickleStepTestStep pickleStep = (PickleStepTestStep) testStep;
+            CommandProfiler.startStep(pickleStep.getStep().getKeyword() + pickleStep.getStep().getText());
+        } else if (testStep instanceof HookTestStep) {
+            CommandProfiler.startStep("@" + ((HookTestStep) testStep).getHookType() + " " + testStep.getCodeLocation());
+        } else {
+            CommandProfiler.startStep(testStep.getCodeLocation());
+        }
+    }
+
+    private void onScenarioFinished() {
+        CommandProfile profile = CommandProfiler.finish();
+        if (profile == null) return;
+        for (String pattern : profile.findNPlusOnePatterns(N_PLUS_ONE_THRESHOLD)) {
+            Log.warn(logger, "N+1 WebDriver commands in scenario '{}' : {}", profile.getScenario(), pattern);
+            nPlusOnePatterns.add(json(profile.getScenario() + " - " + pattern));
+        }
+        for (Map.Entry<String, CommandProfile.Usage> method : profile.getMethods().entrySet()) {
+            long[] totals = methods.computeIfAbsent(method.getKey(), key -> new long[2]);
+            synchronized (totals) {
+                totals[0] += method.getValue().getCount();
+                totals[1] += method.getValue().getTotalMicros();
+            }
+        }
+        scenarioProfiles.add(toJson(profile));
+    }
+
+    private void writeReport() {
+        List<Map.Entry<String, long[]>> sortedMethods = new ArrayList<>(methods.entrySet());
+        // Methods sending most commands first
+        sortedMethods.sort((first, second) -> Long.compare(second.getValue()[0], first.getValue()[0]));
+        try {
+            Path reportFile = Paths.get(outputFile);
+            if (reportFile.getParent() != null) Files.createDirectories(reportFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+                writer.write("{\n  \"methods\": [");
+                String separator = "\n";
+                for (Map.Entry<String, long[]> method : sortedMethods) {
+                    writer.write(separator + "    {\"method\": " + json(method.getKey()) + ", \"commands\": " + method.getValue()[0]
+                            + ", \"totalMillis\": " + millis(method.getValue()[1]) + "}");
+                    separator = ",\n";
+                }
+                writer.write("\n  ],\n  \"nPlusOne\": [" + String.join(", ", nPlusOnePatterns) + "],\n  \"scenarios\": [\n");
+                writer.write(String.join(",\n", scenarioProfiles));
+                writer.write("\n  ]\n}\n");
+            }
+        } catch (IOException exception) {
+            logger.error("Failed to write command profile to " + outputFile, exception);
+            return;
+        }
+        Log.info(logger, "Command profile written to {} - N+1 patterns found : {}", outputFile, nPlusOnePatterns.size());
+    }
+
+    private static String toJson(CommandProfile profile) {
+        StringBuilder builder = new StringBuilder("    {\"scenario\": ").append(json(profile.getScenario()))
+                .append(", \"location\": ").append(json(profile.getLocation()))
+                .append(", \"steps\": [");
+        String stepSeparator = "\n";
+        for (CommandProfile.Step step : profile.getSteps()) {
+            builder.append(stepSeparator).append("      {\"step\": ").append(json(step.getText()))
+                    .append(", \"commands\": ").append(step.getUsage().getCount())
+                    .append(", \"totalMillis\": ").append(millis(step.getUsage().getTotalMicros()))
+                    .append(", \"callSites\": [");
+            String callSiteSeparator = "";
+            for (Map.Entry<CommandProfile.CallSite, CommandProfile.Usage> callSite : step.getCallSites().entrySet()) {
+                builder.append(callSiteSeparator).append("{\"caller\": ").append(json(callSite.getKey().getCaller()))
+                        .append(", \"command\": ").append(json(callSite.getKey().getCommand()))
+                        .append(", \"count\": ").append(callSite.getValue().getCount())
+                        .append(", \"elements\": ").append(callSite.getValue().getElementCount())
+                        .append(", \"totalMillis\": ").append(millis(callSite.getValue().getTotalMicros())).append("}");
+                callSiteSeparator = ", ";
+            }
+            builder.append("]}");
+            stepSeparator = ",\n";
+        }
+        return builder.append("\n    ]}").toString();
+    }
+}
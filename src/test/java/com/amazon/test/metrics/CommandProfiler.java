@@ -0,0 +1,73 @@
+package com.amazon.test.metrics;
+
+import java.util.Map;
+
+/**
+ * Records the WebDriver commands sent by the scenarios in a {@link CommandProfile} per scenario.
+ * Commands are only profiled while a profile is started on the sending thread, so the stack of a command, which tells
+ * its caller, is only taken when profiling is enabled. The stack is taken once by the driver and shared with
+ * {@link com.amazon.test.impact.ImpactRecorder}.
+ */
+public class CommandProfiler {
+    // Parameter holding the element id of the element commands
+    private static final String PARAMETER_ELEMENT_ID = "id";
+    private static final ThreadLocal<CommandProfile> profile = new ThreadLocal<>();
+
+    private CommandProfiler() {
+    }
+
+    /**
+     * Starts profiling the commands of a scenario on the current thread.
+     *
+     * @param scenario name of the scenario
+     * @param location feature file and line of the scenario
+     */
+    public static void start(String scenario, String location) {
+        profile.set(new CommandProfile(scenario, location));
+    }
+
+    /**
+     * Marks the start of a step of the scenario profiled on the current thread.
+     *
+     * @param text step text
+     */
+    public static void startStep(String text) {
+        CommandProfile currentProfile = profile.get();
+        if (currentProfile != null) currentProfile.startStep(text);
+    }
+
+    /**
+     * Determines whether the scenario of the current thread is profiled, i.e. whether its commands need a stack.
+     *
+     * @return true if a profile is started on the current thread otherwise false
+     */
+    public static boolean isProfiling() {
+        return profile.get() != null;
+    }
+
+    /**
+     * Records a command sent by the current thread if its scenario is profiled.
+     *
+     * @param command      WebDriver command name
+     * @param parameters   command parameters
+     * @param elapsedNanos time taken by the command round trip
+     * @param stack        stack of the thread sending the command, only null if the scenario is not profiled
+     */
+    public static void record(String command, Map<String, ?> parameters, long elapsedNanos, StackTraceElement[] stack) {
+        CommandProfile currentProfile = profile.get();
+        if (currentProfile == null) return;
+        Object elementId = parameters == null ? null : parameters.get(PARAMETER_ELEMENT_ID);
+        currentProfile.record(command, elementId == null ? null : elementId.toString(), elapsedNanos, stack);
+    }
+
+    /**
+     * Stops profiling the current thread.
+     *
+     * @return profile of the scenario or null if no profile was started
+     */
+    public static CommandProfile finish() {
+        CommandProfile finishedProfile = profile.get();
+        profile.remove();
+        return finishedProfile;
+    }
+}
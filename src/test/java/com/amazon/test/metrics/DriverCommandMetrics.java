@@ -0,0 +1,49 @@
+package com.amazon.test.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies of the WebDriver commands sent to the browsers, recorded by {@link TimedChromeDriver}.
+ * Every command is one round trip to the browser. Latencies are aggregated per command name for the whole run,
+ * while round trips are also counted per thread so that a step can tell how many commands it sent.
+ */
+public class DriverCommandMetrics {
+    private static final ConcurrentHashMap<String, Histogram> commandLatencies = new ConcurrentHashMap<>();
+    // Round trips sent by the current thread since it started, a scenario and its browser session share a thread
+    private static final ThreadLocal<long[]> roundTrips = ThreadLocal.withInitial(() -> new long[1]);
+
+    private DriverCommandMetrics() {
+    }
+
+    /**
+     * Records a command sent by the current thread.
+     *
+     * @param command      WebDriver command name
+     * @param elapsedNanos time taken by the command round trip
+     */
+    public static void record(String command, long elapsedNanos) {
+        roundTrips.get()[0]++;
+        commandLatencies.computeIfAbsent(command, key -> new Histogram()).record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    /**
+     * Get the number of commands sent by the current thread so far.
+     *
+     * @return round trip count
+     */
+    public static long getRoundTripCount() {
+        return roundTrips.get()[0];
+    }
+
+    /**
+     * Get the latency histograms of the commands sent so far.
+     *
+     * @return latency histograms in microseconds by command name
+     */
+    public static Map<String, Histogram> getCommandLatencies() {
+        return new TreeMap<>(commandLatencies);
+    }
+}
@@ -0,0 +1,91 @@
+package com.amazon.test.metrics;
+
+/**
+ * Histogram of non negative values with a bounded relative error, in the style of an HDR histogram.
+ * Values are counted in log-linear buckets, each power of two being split into {@value #SUB_BUCKET_COUNT} linear
+ * sub buckets, so recording a value is constant time, the memory used is fixed and percentiles are accurate
+ * within about 3% whatever the range of the recorded values.
+ * <p>
+ * A histogram can be recorded from multiple threads.
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalValue;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    /**
+     * Records a value.
+     *
+     * @param value value to record, negative values are recorded as 0
+     */
+    public synchronized void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        totalValue += value;
+        if (value < minValue) minValue = value;
+        if (value > maxValue) maxValue = value;
+    }
+
+    public synchronized long getCount() {
+        return this.totalCount;
+    }
+
+    public synchronized long getTotal() {
+        return this.totalValue;
+    }
+
+    public synchronized long getMin() {
+        return this.totalCount == 0 ? 0 : this.minValue;
+    }
+
+    public synchronized long getMax() {
+        return this.maxValue;
+    }
+
+    public synchronized double getMean() {
+        return this.totalCount == 0 ? 0 : (double) this.totalValue / this.totalCount;
+    }
+
+    /**
+     * Get the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return highest value of the bucket holding the percentile, capped to the maximum recorded value,
+     * or 0 if no value is recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * totalCount));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts[index];
+            if (seen >= rank) return Math.min(bucketHighestValue(index), maxValue);
+        }
+        return maxValue;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketHighestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        long lowestValue = (SUB_BUCKET_COUNT + subBucket) << shift;
+        long highestValue = lowestValue + ((1L << shift) - 1);
+        // The top bucket overflows beyond Long.MAX_VALUE
+        return highestValue < 0 ? Long.MAX_VALUE : highestValue;
+    }
+}
@@ -0,0 +1,142 @@
+package com.amazon.test.metrics;
+
+import com.amazon.test.ProjectProperties;
+import com.amazon.test.util.Log;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import static com.amazon.test.metrics.ReportFormat.csv;
+
+/**
+ * Bandwidth and load time of the pages loaded by each scenario, read from the Navigation and Resource Timing APIs
+ * of the browser. They show what resource blocking saves.
+ * <p>
+ * A page is measured once, when the scenario is about to leave it or finishes, so every page loaded by a scenario
+ * is measured whether it was visited or reached by clicking. Per scenario totals are logged and appended to
+ * 'reports/resource-metrics.csv', or to the file set by the 'RESOURCE_METRICS_FILE' property. Sizes of cross-origin
+ * resources are only reported by the browser when their server allows it, so bytes transferred are a lower bound.
+ */
+public class PageLoadMetrics {
+    private static final Logger logger = Logger.getLogger(PageLoadMetrics.class.getCanonicalName());
+    private static final String REPORT_HEADER = "scenario,pages,requests,transferred_kb,decoded_kb,load_ms\n";
+    // The browser keeps 250 resource timings by default, fewer than the resources of an Amazon page
+    private static final String SCRIPT_RESOURCE_TIMING_BUFFER = "performance.setResourceTimingBufferSize(5000);";
+    private static final String SCRIPT_READ_METRICS = "if (window.__pageLoadMetricsRead || !/^http/.test(location.protocol)) return null;"
+            + "window.__pageLoadMetricsRead = true;"
+            + "var navigation = performance.getEntriesByType('navigation')[0];"
+            + "var resources = performance.getEntriesByType('resource');"
+            + "var transferred = navigation ? navigation.transferSize : 0, decoded = navigation ? navigation.decodedBodySize : 0;"
+            + "for (var i = 0; i < resources.length; i++) { transferred += resources[i].transferSize; decoded += resources[i].decodedBodySize; }"
+            + "var loadTime = navigation && navigation.loadEventEnd > 0 ? navigation.loadEventEnd - navigation.startTime : performance.now();"
+            + "return [resources.length + 1, transferred, decoded, Math.round(loadTime)];";
+    private static final int PAGES = 0;
+    private static final int REQUESTS = 1;
+    private static final int TRANSFERRED_BYTES = 2;
+    private static final int DECODED_BYTES = 3;
+    private static final int LOAD_MILLIS = 4;
+
+    // Totals of the scenario executed by the current thread, null when metrics are not collected
+    private static final ThreadLocal<long[]> scenarioTotals = new ThreadLocal<>();
+    private static boolean reportStarted;
+
+    private PageLoadMetrics() {
+    }
+
+    /**
+     * Prepares a started browser for the measures, so that the timings of all the resources of a page are kept.
+     *
+     * @param driver started browser
+     */
+    public static void enable(TimedChromeDriver driver) {
+        try {
+            driver.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Collections.singletonMap("source", SCRIPT_RESOURCE_TIMING_BUFFER));
+        } catch (WebDriverException exception) {
+            Log.warn(logger, "Resource timings are limited to the browser default : {}", exception.getMessage());
+        }
+    }
+
+    /**
+     * Starts collecting the metrics of the scenario executed by the current thread.
+     */
+    public static void start() {
+        scenarioTotals.set(new long[5]);
+    }
+
+    /**
+     * Determines whether the current thread collects metrics.
+     *
+     * @return true if metrics are collected otherwise false
+     */
+    public static boolean isCollecting() {
+        return scenarioTotals.get() != null;
+    }
+
+    /**
+     * Measures the page currently loaded in the browser, unless it is already measured.
+     * Does nothing if the current thread does not collect metrics.
+     *
+     * @param driver browser of the scenario
+     */
+    public static void capture(WebDriver driver) {
+        long[] totals = scenarioTotals.get();
+        if (totals == null) return;
+        Object metrics;
+        try {
+            metrics = ((JavascriptExecutor) driver).executeScript(SCRIPT_READ_METRICS);
+        } catch (WebDriverException exception) {
+            Log.debug(logger, "Page load metrics not read : {}", exception.getMessage());
+            return;
+        }
+        if (!(metrics instanceof List)) return;
+        List<?> values = (List<?>) metrics;
+        totals[PAGES]++;
+        totals[REQUESTS] += ((Number) values.get(0)).longValue();
+        totals[TRANSFERRED_BYTES] += ((Number) values.get(1)).longValue();
+        totals[DECODED_BYTES] += ((Number) values.get(2)).longValue();
+        totals[LOAD_MILLIS] += ((Number) values.get(3)).longValue();
+    }
+
+    /**
+     * Stops collecting the metrics of the current thread and reports the totals of its scenario.
+     *
+     * @param scenario name of the scenario
+     */
+    public static void finish(String scenario) {
+        long[] totals = scenarioTotals.get();
+        scenarioTotals.remove();
+        if (totals == null) return;
+        Log.info(logger, "Page load metrics of scenario '{}' - pages : {}, requests : {}, transferred : {} KB, decoded : {} KB, load time : {} ms",
+                scenario, totals[PAGES], totals[REQUESTS], totals[TRANSFERRED_BYTES] / 1024, totals[DECODED_BYTES] / 1024, totals[LOAD_MILLIS]);
+        appendToReport(csv(scenario) + ',' + totals[PAGES] + ',' + totals[REQUESTS] + ',' + totals[TRANSFERRED_BYTES] / 1024
+                + ',' + totals[DECODED_BYTES] / 1024 + ',' + totals[LOAD_MILLIS] + '\n');
+    }
+
+    private static synchronized void appendToReport(String row) {
+        Path reportFile = Paths.get(ProjectProperties.getResourceMetricsFile());
+        try {
+            if (!reportStarted) {
+                // Start a new report for the run
+                if (reportFile.getParent() != null) Files.createDirectories(reportFile.getParent());
+                Files.write(reportFile, REPORT_HEADER.getBytes(StandardCharsets.UTF_8));
+                reportStarted = true;
+            }
+            try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
+                writer.write(row);
+            }
+        } catch (IOException exception) {
+            logger.error("Failed to write page load metrics to " + reportFile, exception);
+        }
+    }
+}
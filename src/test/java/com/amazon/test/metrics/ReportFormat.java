@@ -0,0 +1,44 @@
+package com.amazon.test.metrics;
+
+import java.util.Locale;
+
+/**
+ * Formatting of the values written in the metrics reports.
+ */
+class ReportFormat {
+
+    private ReportFormat() {
+    }
+
+    /**
+     * Formats a text as a JSON string literal.
+     */
+    static String json(String text) {
+        StringBuilder escaped = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') escaped.append('\\').append(c);
+            else if (c < ' ') escaped.append(String.format("\\u%04x", (int) c));
+            else escaped.append(c);
+        }
+        return escaped.append('"').toString();
+    }
+
+    /**
+     * Formats a text as a quoted CSV field.
+     */
+    static String csv(String text) {
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Formats a duration in microseconds as milliseconds.
+     */
+    static String millis(double micros) {
+        return decimal(micros / 1000);
+    }
+
+    static String decimal(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
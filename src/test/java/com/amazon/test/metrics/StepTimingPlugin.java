@@ -0,0 +1,199 @@
+package com.amazon.test.metrics;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.amazon.test.metrics.ReportFormat.csv;
+import static com.amazon.test.metrics.ReportFormat.decimal;
+import static com.amazon.test.metrics.ReportFormat.json;
+import static com.amazon.test.metrics.ReportFormat.millis;
+
+/**
+ * Cucumber plugin timing every step and hook of the scenarios.
+ * For each step, the duration and the number of WebDriver round trips, counted by {@link DriverCommandMetrics},
+ * are recorded and aggregated in {@link Histogram}s per step pattern. At the end of the run, the following reports
+ * are written using the path given as plugin argument, e.g. 'com.amazon.test.metrics.StepTimingPlugin:reports/step-timings' :
+ * <ul>
+ * <li>'.json' - duration and round trip percentiles per step pattern and latency percentiles per WebDriver command</li>
+ * <li>'.csv' - duration and round trip percentiles per step pattern</li>
+ * <li>'-steps.csv' - duration and round trips of every executed step</li>
+ * </ul>
+ * Steps of scenarios running in parallel are timed independently, as cucumber publishes the events of a step
+ * on the thread executing it.
+ */
+public class StepTimingPlugin implements ConcurrentEventListener {
+    private static final Logger logger = Logger.getLogger(StepTimingPlugin.class.getCanonicalName());
+    private static final int LOGGED_SLOWEST_STEPS = 5;
+
+    private final String outputPath;
+    private final ThreadLocal<Long> stepStartRoundTrips = new ThreadLocal<>();
+    private final ConcurrentHashMap<String, StepStatistics> statistics = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> stepRows = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs a {@link StepTimingPlugin}.
+     *
+     * @param outputPath path of the reports without extension
+     */
+    public StepTimingPlugin(String outputPath) {
+        this.outputPath = outputPath;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeReports());
+    }
+
+    private void onStepStarted(TestStepStarted event) {
+        stepStartRoundTrips.set(DriverCommandMetrics.getRoundTripCount());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        Long startRoundTrips = stepStartRoundTrips.get();
+        stepStartRoundTrips.remove();
+        long roundTrips = startRoundTrips == null ? 0 : DriverCommandMetrics.getRoundTripCount() - startRoundTrips;
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(event.getResult().getDuration().toNanos());
+        TestCase testCase = event.getTestCase();
+        TestStep testStep = event.getTestStep();
+        String pattern = getPattern(testStep);
+        statistics.computeIfAbsent(pattern, key -> new StepStatistics()).record(durationMicros, roundTrips);
+        stepRows.add(csv(testCase.getName()) + ',' + csv(testCase.getUri() + ":" + testCase.getLocation().getLine()) + ','
+                + csv(getText(testStep)) + ',' + csv(pattern) + ',' + event.getResult().getStatus() + ','
+                + millis(durationMicros) + ',' + roundTrips);
+    }
+
+    /**
+     * Get the key under which a step is aggregated, the pattern of a step definition or the method of a hook.
+     */
+    private static String getPattern(TestStep testStep) {
+        if (testStep instanceof PickleStepTestStep) return ((PickleStepTestStep) testStep).getPattern();
+        if (testStep instanceof HookTestStep) return "@" + ((HookTestStep) testStep).getHookType() + " " + testStep.getCodeLocation();
+        return testStep.getCodeLocation();
+    }
+
+    private static String getText(TestStep testStep) {
+        if (testStep instanceof PickleStepTestStep) {
+            PickleStepTestStep pickleStep = (PickleStepTestStep) testStep;
+            return pickleStep.getStep().getKeyword() + pickleStep.getStep().getText();
+        }
+        return getPattern(testStep);
+    }
+
+    private void writeReports() {
+        List<Map.Entry<String, StepStatistics>> steps = new ArrayList<>(statistics.entrySet());
+        // Steps taking most of the suite time first
+        steps.sort((first, second) -> Long.compare(second.getValue().durations.getTotal(), first.getValue().durations.getTotal()));
+        try {
+            Path jsonFile = Paths.get(outputPath + ".json");
+            if (jsonFile.getParent() != null) Files.createDirectories(jsonFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8)) {
+                writeJson(writer, steps, DriverCommandMetrics.getCommandLatencies());
+            }
+            try (Writer writer = Files.newBufferedWriter(Paths.get(outputPath + ".csv"), StandardCharsets.UTF_8)) {
+                writer.write("pattern,count,total_ms,mean_ms,p50_ms,p95_ms,p99_ms,max_ms,mean_round_trips,p95_round_trips,max_round_trips\n");
+                for (Map.Entry<String, StepStatistics> step : steps) {
+                    Histogram durations = step.getValue().durations;
+                    Histogram roundTrips = step.getValue().roundTrips;
+                    writer.write(csv(step.getKey()) + ',' + durations.getCount() + ',' + millis(durations.getTotal()) + ','
+                            + millis(durations.getMean()) + ',' + millis(durations.getPercentile(50)) + ','
+                            + millis(durations.getPercentile(95)) + ',' + millis(durations.getPercentile(99)) + ','
+                            + millis(durations.getMax()) + ',' + decimal(roundTrips.getMean()) + ','
+                            + roundTrips.getPercentile(95) + ',' + roundTrips.getMax() + '\n');
+                }
+            }
+            try (Writer writer = Files.newBufferedWriter(Paths.get(outputPath + "-steps.csv"), StandardCharsets.UTF_8)) {
+                writer.write("scenario,location,step,pattern,status,duration_ms,round_trips\n");
+                for (String row : stepRows) {
+                    writer.write(row);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException exception) {
+            logger.error("Failed to write step timing reports to " + outputPath, exception);
+            return;
+        }
+        logSlowestSteps(steps);
+    }
+
+    private void writeJson(Writer writer, List<Map.Entry<String, StepStatistics>> steps, Map<String, Histogram> commands) throws IOException {
+        writer.write("{\n  \"steps\": [");
+        String separator = "\n";
+        for (Map.Entry<String, StepStatistics> step : steps) {
+            writer.write(separator + "    {\"pattern\": " + json(step.getKey())
+                    + ", \"durationMillis\": " + histogramJson(step.getValue().durations, true)
+                    + ", \"roundTrips\": " + histogramJson(step.getValue().roundTrips, false) + "}");
+            separator = ",\n";
+        }
+        writer.write("\n  ],\n  \"commands\": [");
+        separator = "\n";
+        for (Map.Entry<String, Histogram> command : commands.entrySet()) {
+            writer.write(separator + "    {\"command\": " + json(command.getKey())
+                    + ", \"latencyMillis\": " + histogramJson(command.getValue(), true) + "}");
+            separator = ",\n";
+        }
+        writer.write("\n  ]\n}\n");
+    }
+
+    private void logSlowestSteps(List<Map.Entry<String, StepStatistics>> steps) {
+        StringBuilder summary = new StringBuilder("Step timings written to " + outputPath + ".json - slowest steps :");
+        for (int i = 0; i < Math.min(LOGGED_SLOWEST_STEPS, steps.size()); i++) {
+            Histogram durations = steps.get(i).getValue().durations;
+            summary.append("\n\t").append(steps.get(i).getKey())
+                    .append(" - total : ").append(millis(durations.getTotal())).append(" ms")
+                    .append(", p95 : ").append(millis(durations.getPercentile(95))).append(" ms")
+                    .append(", count : ").append(durations.getCount());
+        }
+        logger.info(summary);
+    }
+
+    private static String histogramJson(Histogram histogram, boolean micros) {
+        return "{\"count\": " + histogram.getCount()
+                + ", \"total\": " + (micros ? millis(histogram.getTotal()) : String.valueOf(histogram.getTotal()))
+                + ", \"mean\": " + (micros ? millis(histogram.getMean()) : decimal(histogram.getMean()))
+                + ", \"min\": " + value(histogram.getMin(), micros)
+                + ", \"p50\": " + value(histogram.getPercentile(50), micros)
+                + ", \"p95\": " + value(histogram.getPercentile(95), micros)
+                + ", \"p99\": " + value(histogram.getPercentile(99), micros)
+                + ", \"max\": " + value(histogram.getMax(), micros) + "}";
+    }
+
+    private static String value(long value, boolean micros) {
+        return micros ? millis(value) : String.valueOf(value);
+    }
+
+    /**
+     * Durations in microseconds and round trips of the executions of a step pattern.
+     */
+    private static class StepStatistics {
+        private final Histogram durations = new Histogram();
+        private final Histogram roundTrips = new Histogram();
+
+        private void record(long durationMicros, long roundTripCount) {
+            durations.record(durationMicros);
+            roundTrips.record(roundTripCount);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.amazon.test.metrics;
+
+import com.amazon.test.impact.ImpactRecorder;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChromeDriver} recording the latency of every command it sends to the browser in {@link DriverCommandMetrics}
+ * and in the {@link CommandProfile} of the scenario when it is profiled by {@link CommandProfiler}. The framework
+ * classes sending the commands are recorded by {@link ImpactRecorder}.
+ * Commands of the driver and of its elements all go through {@link ChromeDriver#execute(String, Map)}.
+ * <p>
+ * The last {@value #RECENT_COMMANDS} commands are kept, to report what the browser was asked to do before a failure.
+ * <p>
+ * The driver can also send Chrome DevTools Protocol commands, which this Selenium version does not support,
+ * through the endpoint of the chromedriver service.
+ */
+public class TimedChromeDriver extends ChromeDriver {
+    private static final String CDP_COMMAND_PATH = "/session/%s/goog/cdp/execute";
+    private static final String CDP_COMMAND_PREFIX = "cdp:";
+    private static final int STATUS_OK = 200;
+    private static final int RECENT_COMMANDS = 50;
+    private static final String RECENT_COMMAND_FORMAT = "%1$tT.%1$tL %2$s%3$s (%4$.3f ms)";
+
+    private final Json json = new Json();
+    private final ChromeDriverService service;
+    // Ring buffer of the recent commands, only the URL or locator of a command is kept as it may send typed text
+    private final long[] recentCommandMillis = new long[RECENT_COMMANDS];
+    private final long[] recentCommandMicros = new long[RECENT_COMMANDS];
+    private final String[] recentCommands = new String[RECENT_COMMANDS];
+    private final Object[] recentCommandTargets = new Object[RECENT_COMMANDS];
+    private long recentCommandCount;
+
+    public TimedChromeDriver(ChromeDriverService service, ChromeOptions options) {
+        super(service, options);
+        this.service = service;
+    }
+
+    @Override
+    protected Response execute(String driverCommand, Map<String, ?> parameters) {
+        long startNanos = System.nanoTime();
+        try {
+            return super.execute(driverCommand, parameters);
+        } finally {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            DriverCommandMetrics.record(driverCommand, elapsedNanos);
+            // One stack per command, shared by the profiler and the impact recorder, none when both are disabled
+            StackTraceElement[] stack = CommandProfiler.isProfiling() || ImpactRecorder.isRecording()
+                    ? Thread.currentThread().getStackTrace() : null;
+            CommandProfiler.record(driverCommand, parameters, elapsedNanos, stack);
+            ImpactRecorder.recordCallers(stack);
+            recordRecentCommand(driverCommand, parameters, elapsedNanos);
+        }
+    }
+
+    private synchronized void recordRecentCommand(String driverCommand, Map<String, ?> parameters, long elapsedNanos) {
+        int index = (int) (recentCommandCount++ % RECENT_COMMANDS);
+        recentCommandMillis[index] = System.currentTimeMillis();
+        recentCommandMicros[index] = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        recentCommands[index] = driverCommand;
+        Object target = null;
+        if (parameters != null) {
+            target = parameters.get("url");
+            if (target == null && driverCommand.startsWith("find")) target = parameters.get("value");
+        }
+        recentCommandTargets[index] = target;
+    }
+
+    /**
+     * Get the last commands sent to the browser, oldest first, e.g. '10:15:02.127 get https://www.amazon.in/ (812.500 ms)'.
+     *
+     * @param count maximum number of commands, up to {@value #RECENT_COMMANDS}
+     * @return recent commands
+     */
+    public synchronized List<String> getRecentCommands(int count) {
+        int size = (int) Math.min(Math.min(count, RECENT_COMMANDS), recentCommandCount);
+        List<String> commands = new ArrayList<>(size);
+        for (long position = recentCommandCount - size; position < recentCommandCount; position++) {
+            int index = (int) (position % RECENT_COMMANDS);
+            commands.add(String.format(RECENT_COMMAND_FORMAT, recentCommandMillis[index], recentCommands[index],
+                    recentCommandTargets[index] == null ? "" : " " + recentCommandTargets[index], recentCommandMicros[index] / 1000.0));
+        }
+        return commands;
+    }
+
+    /**
+     * Sends a Chrome DevTools Protocol command to the browser.
+     *
+     * @param command    CDP command name, e.g. 'Network.setBlockedURLs'
+     * @param parameters CDP command parameters
+     * @return result of the command
+     * @throws WebDriverException if command fails
+     */
+    public Map<String, Object> executeCdpCommand(String command, Map<String, ?> parameters) throws WebDriverException {
+        long startNanos = System.nanoTime();
+        HashMap<String, Object> payload = new HashMap<>();
+        payload.put("cmd", command);
+        payload.put("params", parameters);
+        try {
+            URL commandUrl = new URL(service.getUrl(), String.format(CDP_COMMAND_PATH, getSessionId()));
+            HttpURLConnection connection = (HttpURLConnection) commandUrl.openConnection();
+            try {
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(json.toJson(payload).getBytes(StandardCharsets.UTF_8));
+                }
+                int status = connection.getResponseCode();
+                InputStream responseStream = status == STATUS_OK ? connection.getInputStream() : connection.getErrorStream();
+                String response = responseStream == null ? "" : read(responseStream);
+                if (status != STATUS_OK) {
+                    throw new WebDriverException("CDP command " + command + " failed with status " + status + " : " + response);
+                }
+                Map<String, Object> result = json.toType(response, Json.MAP_TYPE);
+                Object value = result.get("value");
+                @SuppressWarnings("unchecked")
+                Map<String, Object> commandResult = value instanceof Map ? (Map<String, Object>) value : new HashMap<>();
+                return commandResult;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException exception) {
+            throw new WebDriverException("CDP command " + command + " failed : " + exception.getMessage(), exception);
+        } finally {
+            DriverCommandMetrics.record(CDP_COMMAND_PREFIX + command, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        try (InputStream stream = inputStream) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
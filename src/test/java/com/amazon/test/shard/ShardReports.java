@@ -0,0 +1,348 @@
+package com.amazon.test.shard;
+
+import io.cucumber.htmlformatter.MessagesToHtmlWriter;
+import io.cucumber.messages.Messages;
+import io.cucumber.messages.Messages.GherkinDocument.Feature;
+import io.cucumber.messages.NdjsonToMessageIterable;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Merges the files written by the shards of a {@link ShardedRun} into the report and log files of a single run.
+ */
+class ShardReports {
+    static final String MESSAGES_FILE = "cucumber-messages.ndjson";
+    static final String JSON_FILE = "cucumber-tests.json";
+    static final String RESOURCE_METRICS_FILE = "resource-metrics.csv";
+    private static final Path HTML_REPORT = Paths.get("reports/cucumber-tests.html");
+    private static final Path JSON_REPORT = Paths.get("reports/cucumber-tests.json");
+    private static final Path RESOURCE_METRICS_REPORT = Paths.get("reports/resource-metrics.csv");
+    private static final Path LOG_FILE = Paths.get("logs/cucumber-tests.log");
+    // Log events start with their timestamp, other lines continue the previous event (e.g. stack traces)
+    private static final Pattern LOG_EVENT = Pattern.compile("^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}\t.*");
+    private static final Comparator<Messages.Envelope> BY_TIMESTAMP = Comparator
+            .comparingLong((Messages.Envelope envelope) -> envelope.getTestRunFinished().getTimestamp().getSeconds())
+            .thenComparingInt(envelope -> envelope.getTestRunFinished().getTimestamp().getNanos());
+
+    private ShardReports() {
+    }
+
+    /**
+     * Merges the files of the shards. Missing shard files, e.g. of a shard which failed to start, are skipped.
+     * Files left by a previous run must be deleted before the shards start, see {@link ShardedRun}.
+     *
+     * @param shardDirectories directories of the shard files
+     * @throws IOException if a file cannot be read or written
+     */
+    static void merge(List<Path> shardDirectories) throws IOException {
+        writeHtml(mergeMessages(shardDirectories));
+        writeJson(mergeJson(shardDirectories));
+        mergeCsv(shardDirectories);
+        mergeLogs(shardDirectories);
+        System.out.println("Merged shard reports in " + HTML_REPORT + ", " + JSON_REPORT + ", "
+                + RESOURCE_METRICS_REPORT + " and " + LOG_FILE);
+    }
+
+    /**
+     * Merges the cucumber messages of all shards into the messages of one run. Each shard sends the source of the
+     * features it ran, so sources are kept once, and the pickles of all the scenarios of these features, so only the
+     * pickles of the scenarios it ran are kept. As each shard gives random ids to the nodes of the features it parses,
+     * the pickles of a shard refer to the nodes of the kept feature at the same line and column. Test run messages of
+     * the shards are merged into one test run.
+     *
+     * @param shardDirectories directories of the shard files
+     * @return messages of the run, in the order to write them
+     * @throws IOException if a file cannot be read
+     */
+    static List<Messages.Envelope> mergeMessages(List<Path> shardDirectories) throws IOException {
+        List<Messages.Envelope> envelopes = new ArrayList<>();
+        boolean metaRead = false;
+        Messages.Envelope testRunStarted = null;
+        Messages.Envelope testRunFinished = null;
+        boolean success = true;
+        Set<String> sourceUris = new HashSet<>();
+        // Node ids of the kept features by line and column, by feature uri
+        Map<String, Map<String, String>> documentNodes = new HashMap<>();
+        Set<String> pickleIds = new HashSet<>();
+        for (Path shardDirectory : shardDirectories) {
+            Path messagesFile = shardDirectory.resolve(MESSAGES_FILE);
+            if (!Files.exists(messagesFile)) {
+                success = false;
+                continue;
+            }
+            // Node ids of the shard features mapped to the node ids of the kept features
+            Map<String, String> shardNodeIds = new HashMap<>();
+            try (InputStream inputStream = Files.newInputStream(messagesFile)) {
+                for (Messages.Envelope envelope : new NdjsonToMessageIterable(inputStream)) {
+                    if (envelope.hasMeta()) {
+                        if (!metaRead) envelopes.add(envelope);
+                        metaRead = true;
+                    } else if (envelope.hasSource()) {
+                        if (sourceUris.add(envelope.getSource().getUri())) envelopes.add(envelope);
+                    } else if (envelope.hasGherkinDocument()) {
+                        Map<String, String> nodes = astNodes(envelope.getGherkinDocument());
+                        Map<String, String> keptNodes = documentNodes.get(envelope.getGherkinDocument().getUri());
+                        if (keptNodes == null) {
+                            documentNodes.put(envelope.getGherkinDocument().getUri(), nodes);
+                            envelopes.add(envelope);
+                        } else {
+                            for (Map.Entry<String, String> node : nodes.entrySet()) {
+                                String keptId = keptNodes.get(node.getKey());
+                                if (keptId != null) shardNodeIds.put(node.getValue(), keptId);
+                            }
+                        }
+                    } else if (envelope.hasPickle()) {
+                        envelopes.add(shardNodeIds.isEmpty() ? envelope : envelope.toBuilder()
+                                .setPickle(withAstNodeIds(envelope.getPickle(), shardNodeIds)).build());
+                    } else if (envelope.hasTestRunStarted()) {
+                        // The first shard started is the start of the run
+                        if (testRunStarted == null) testRunStarted = envelope;
+                    } else if (envelope.hasTestRunFinished()) {
+                        success &= envelope.getTestRunFinished().getSuccess();
+                        if (testRunFinished == null || BY_TIMESTAMP.compare(envelope, testRunFinished) > 0) testRunFinished = envelope;
+                    } else {
+                        if (envelope.hasTestCase()) pickleIds.add(envelope.getTestCase().getPickleId());
+                        envelopes.add(envelope);
+                    }
+                }
+            }
+        }
+        List<Messages.Envelope> runEnvelopes = new ArrayList<>();
+        boolean started = testRunStarted == null;
+        for (Messages.Envelope envelope : envelopes) {
+            if (envelope.hasPickle() && !pickleIds.contains(envelope.getPickle().getId())) continue;
+            // Test run starts once the sources and glue are sent
+            if (!started && envelope.hasTestCase()) {
+                runEnvelopes.add(testRunStarted);
+                started = true;
+            }
+            runEnvelopes.add(envelope);
+        }
+        if (!started) runEnvelopes.add(testRunStarted);
+        if (testRunFinished != null) {
+            runEnvelopes.add(testRunFinished.toBuilder()
+                    .setTestRunFinished(testRunFinished.getTestRunFinished().toBuilder().setSuccess(success))
+                    .build());
+        }
+        return runEnvelopes;
+    }
+
+    /**
+     * Get the ids of the nodes of a feature referred to by pickles, i.e. scenarios, steps, tags and Examples rows.
+     *
+     * @param document parsed feature
+     * @return node ids by 'line:column' location of the node
+     */
+    static Map<String, String> astNodes(Messages.GherkinDocument document) {
+        Map<String, String> nodes = new HashMap<>();
+        Feature feature = document.getFeature();
+        addTags(nodes, feature.getTagsList());
+        for (Feature.FeatureChild child : feature.getChildrenList()) {
+            if (child.hasRule()) {
+                addNode(nodes, child.getRule().getLocation(), child.getRule().getId());
+                for (Feature.FeatureChild.RuleChild ruleChild : child.getRule().getChildrenList()) {
+                    if (ruleChild.hasBackground()) addBackground(nodes, ruleChild.getBackground());
+                    if (ruleChild.hasScenario()) addScenario(nodes, ruleChild.getScenario());
+                }
+            }
+            if (child.hasBackground()) addBackground(nodes, child.getBackground());
+            if (child.hasScenario()) addScenario(nodes, child.getScenario());
+        }
+        return nodes;
+    }
+
+    private static void addBackground(Map<String, String> nodes, Feature.Background background) {
+        addNode(nodes, background.getLocation(), background.getId());
+        for (Feature.Step step : background.getStepsList()) addNode(nodes, step.getLocation(), step.getId());
+    }
+
+    private static void addScenario(Map<String, String> nodes, Feature.Scenario scenario) {
+        addNode(nodes, scenario.getLocation(), scenario.getId());
+        addTags(nodes, scenario.getTagsList());
+        for (Feature.Step step : scenario.getStepsList()) addNode(nodes, step.getLocation(), step.getId());
+        for (Feature.Scenario.Examples examples : scenario.getExamplesList()) {
+            addNode(nodes, examples.getLocation(), examples.getId());
+            addTags(nodes, examples.getTagsList());
+            for (Feature.TableRow row : examples.getTableBodyList()) addNode(nodes, row.getLocation(), row.getId());
+        }
+    }
+
+    private static void addTags(Map<String, String> nodes, List<Feature.Tag> tags) {
+        for (Feature.Tag tag : tags) addNode(nodes, tag.getLocation(), tag.getId());
+    }
+
+    private static void addNode(Map<String, String> nodes, Messages.Location location, String id) {
+        nodes.put(location.getLine() + ":" + location.getColumn(), id);
+    }
+
+    /**
+     * Replaces the feature node ids a pickle refers to.
+     *
+     * @param pickle  pickle of a shard
+     * @param nodeIds node ids of the shard mapped to the node ids of the kept feature
+     * @return pickle referring to the kept feature
+     */
+    private static Messages.Pickle withAstNodeIds(Messages.Pickle pickle, Map<String, String> nodeIds) {
+        Messages.Pickle.Builder builder = pickle.toBuilder().clearAstNodeIds().addAllAstNodeIds(mapIds(pickle.getAstNodeIdsList(), nodeIds));
+        for (Messages.Pickle.PickleStep.Builder step : builder.getStepsBuilderList()) {
+            List<String> stepNodeIds = mapIds(step.getAstNodeIdsList(), nodeIds);
+            step.clearAstNodeIds().addAllAstNodeIds(stepNodeIds);
+        }
+        for (Messages.Pickle.PickleTag.Builder tag : builder.getTagsBuilderList()) {
+            tag.setAstNodeId(nodeIds.getOrDefault(tag.getAstNodeId(), tag.getAstNodeId()));
+        }
+        return builder.build();
+    }
+
+    private static List<String> mapIds(List<String> ids, Map<String, String> nodeIds) {
+        List<String> mappedIds = new ArrayList<>();
+        for (String id : ids) mappedIds.add(nodeIds.getOrDefault(id, id));
+        return mappedIds;
+    }
+
+    /**
+     * Writes the html report of the merged cucumber messages.
+     */
+    private static void writeHtml(List<Messages.Envelope> envelopes) throws IOException {
+        Files.createDirectories(HTML_REPORT.getParent());
+        try (Writer writer = Files.newBufferedWriter(HTML_REPORT, StandardCharsets.UTF_8);
+             MessagesToHtmlWriter htmlWriter = new MessagesToHtmlWriter(writer)) {
+            for (Messages.Envelope envelope : envelopes) htmlWriter.write(envelope);
+        }
+    }
+
+    /**
+     * Merges the json reports of all shards, merging the scenarios of a feature run by several shards in their order in
+     * the feature file.
+     *
+     * @param shardDirectories directories of the shard files
+     * @return features of the json report
+     * @throws IOException if a file cannot be read
+     */
+    static List<Map<String, Object>> mergeJson(List<Path> shardDirectories) throws IOException {
+        Json json = new Json();
+        Map<Object, Map<String, Object>> features = new LinkedHashMap<>();
+        for (Path shardDirectory : shardDirectories) {
+            Path jsonFile = shardDirectory.resolve(JSON_FILE);
+            if (!Files.exists(jsonFile)) continue;
+            List<Map<String, Object>> shardFeatures;
+            try (BufferedReader reader = Files.newBufferedReader(jsonFile, StandardCharsets.UTF_8)) {
+                shardFeatures = json.toType(reader, Json.LIST_OF_MAPS_TYPE);
+            }
+            for (Map<String, Object> shardFeature : shardFeatures) {
+                Map<String, Object> feature = features.get(shardFeature.get("uri"));
+                if (feature == null) {
+                    features.put(shardFeature.get("uri"), new LinkedHashMap<>(shardFeature));
+                    continue;
+                }
+                List<Map<String, Object>> elements = new ArrayList<>(elements(feature));
+                elements.addAll(elements(shardFeature));
+                elements.sort(Comparator.comparingLong(element -> ((Number) element.getOrDefault("line", 0)).longValue()));
+                feature.put("elements", elements);
+            }
+        }
+        return new ArrayList<>(features.values());
+    }
+
+    private static void writeJson(List<Map<String, Object>> features) throws IOException {
+        Files.createDirectories(JSON_REPORT.getParent());
+        Files.write(JSON_REPORT, new Json().toJson(features).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> elements(Map<String, Object> feature) {
+        Object elements = feature.get("elements");
+        return elements instanceof List ? (List<Map<String, Object>>) elements : new ArrayList<>();
+    }
+
+    /**
+     * Writes the resource metrics of all shards, with the header once.
+     */
+    private static void mergeCsv(List<Path> shardDirectories) throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (Path shardDirectory : shardDirectories) {
+            Path csvFile = shardDirectory.resolve(RESOURCE_METRICS_FILE);
+            if (!Files.exists(csvFile)) continue;
+            List<String> lines = Files.readAllLines(csvFile, StandardCharsets.UTF_8);
+            rows.addAll(rows.isEmpty() ? lines : lines.subList(Math.min(1, lines.size()), lines.size()));
+        }
+        if (rows.isEmpty()) return;
+        Files.createDirectories(RESOURCE_METRICS_REPORT.getParent());
+        Files.write(RESOURCE_METRICS_REPORT, rows, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the log file written by a shard, selected with the LOG_SHARD system property of the shard.
+     *
+     * @param shard index of the shard, starting at 0
+     * @return log file of the shard
+     */
+    static Path shardLogFile(int shard) {
+        return LOG_FILE.resolveSibling("cucumber-tests-shard-" + (shard + 1) + ".log");
+    }
+
+    /**
+     * Writes the log events of all shards in timestamp order. The shard is added to the thread name of each event,
+     * as shards have threads of the same name.
+     */
+    private static void mergeLogs(List<Path> shardDirectories) throws IOException {
+        List<List<String>> shardEvents = new ArrayList<>();
+        for (int shard = 0; shard < shardDirectories.size(); shard++) {
+            Path logFile = shardLogFile(shard);
+            shardEvents.add(Files.exists(logFile) ? readLogEvents(logFile, "shard-" + (shard + 1)) : new ArrayList<>());
+        }
+        // Next event of each shard, ordered by timestamp then by shard
+        PriorityQueue<int[]> nextEvents = new PriorityQueue<>(Comparator
+                .comparing((int[] next) -> shardEvents.get(next[0]).get(next[1]).substring(0, 23))
+                .thenComparingInt(next -> next[0]));
+        for (int shard = 0; shard < shardEvents.size(); shard++) {
+            if (!shardEvents.get(shard).isEmpty()) nextEvents.add(new int[]{shard, 0});
+        }
+        Files.createDirectories(LOG_FILE.getParent());
+        try (Writer writer = Files.newBufferedWriter(LOG_FILE, StandardCharsets.UTF_8)) {
+            while (!nextEvents.isEmpty()) {
+                int[] next = nextEvents.poll();
+                List<String> events = shardEvents.get(next[0]);
+                writer.write(events.get(next[1]));
+                if (next[1] + 1 < events.size()) nextEvents.add(new int[]{next[0], next[1] + 1});
+            }
+        }
+    }
+
+    private static List<String> readLogEvents(Path logFile, String shardName) throws IOException {
+        List<String> events = new ArrayList<>();
+        StringBuilder event = null;
+        for (String line : Files.readAllLines(logFile, StandardCharsets.UTF_8)) {
+            if (LOG_EVENT.matcher(line).matches()) {
+                if (event != null) events.add(event.toString());
+                // Thread name is the fifth field of the layout, e.g. '[main]'
+                event = new StringBuilder(line.replaceFirst("^((?:[^\t]*\t){4})\\[", "$1[" + shardName + "/"));
+            } else if (event != null) {
+                event.append(line);
+            } else {
+                continue;
+            }
+            event.append('\n');
+        }
+        if (event != null) events.add(event.toString());
+        return events;
+    }
+}
@@ -0,0 +1,92 @@
+package com.amazon.test.shard;
+
+import io.cucumber.messages.Messages;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShardReportsTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mergesShardsRunningTheSameFeature() throws IOException {
+        Path features = folder.newFolder("features").toPath();
+        Files.write(features.resolve("Sharded.feature"), Arrays.asList(
+                "Feature: Sharded",
+                "  @smoke",
+                "  Scenario: first",
+                "    Given a step",
+                "  Scenario Outline: outline",
+                "    Given step <n>",
+                "    Examples:",
+                "      | n |",
+                "      | 1 |",
+                "      | 2 |"), StandardCharsets.UTF_8);
+        List<List<String>> shards = ShardedRun.split(ShardedRun.findScenarios(features), 2);
+        List<Path> shardDirectories = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            Path shardDirectory = folder.newFolder("shard-" + (shard + 1)).toPath();
+            runShard(shardDirectory, shards.get(shard));
+            shardDirectories.add(shardDirectory);
+        }
+
+        List<Messages.Envelope> envelopes = ShardReports.mergeMessages(shardDirectories);
+        Collection<String> nodeIds = null;
+        Set<String> pickleIds = new HashSet<>();
+        int testCases = 0;
+        for (Messages.Envelope envelope : envelopes) {
+            if (envelope.hasGherkinDocument()) {
+                assertEquals("Feature is kept once", null, nodeIds);
+                nodeIds = ShardReports.astNodes(envelope.getGherkinDocument()).values();
+            } else if (envelope.hasPickle()) {
+                // Every shard parses the feature with its own node ids
+                Messages.Pickle pickle = envelope.getPickle();
+                assertTrue(nodeIds.containsAll(pickle.getAstNodeIdsList()));
+                for (Messages.Pickle.PickleStep step : pickle.getStepsList()) assertTrue(nodeIds.containsAll(step.getAstNodeIdsList()));
+                for (Messages.Pickle.PickleTag tag : pickle.getTagsList()) assertTrue(nodeIds.contains(tag.getAstNodeId()));
+                pickleIds.add(pickle.getId());
+            } else if (envelope.hasTestCase()) {
+                assertTrue(pickleIds.contains(envelope.getTestCase().getPickleId()));
+                testCases++;
+            }
+        }
+        assertEquals(3, pickleIds.size());
+        assertEquals(3, testCases);
+        assertEquals(1, envelopes.stream().filter(Messages.Envelope::hasTestRunStarted).count());
+        assertTrue(envelopes.get(envelopes.size() - 1).hasTestRunFinished());
+
+        List<Map<String, Object>> jsonFeatures = ShardReports.mergeJson(shardDirectories);
+        assertEquals(1, jsonFeatures.size());
+        List<Long> lines = new ArrayList<>();
+        for (Object element : (List<?>) jsonFeatures.get(0).get("elements")) {
+            lines.add(((Number) ((Map<?, ?>) element).get("line")).longValue());
+        }
+        assertEquals(Arrays.asList(3L, 9L, 10L), lines);
+    }
+
+    private static void runShard(Path shardDirectory, List<String> scenarios) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--dry-run",
+                "--plugin", "message:" + shardDirectory.resolve(ShardReports.MESSAGES_FILE),
+                "--plugin", "json:" + shardDirectory.resolve(ShardReports.JSON_FILE),
+                "--glue", "com.amazon.test.shard"));
+        args.addAll(scenarios);
+        io.cucumber.core.cli.Main.run(args.toArray(new String[0]), ShardReportsTest.class.getClassLoader());
+    }
+}
@@ -0,0 +1,184 @@
+package com.amazon.test.shard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the cucumber scenarios of a feature directory split across forked JVMs (shards), each with its own browser,
+ * and merges their results into one report and one log.
+ * <p>
+ * Scenarios are split by their 'path:line' location. Each row of an Examples table is a scenario of its own, so the
+ * examples of one Scenario Outline are spread across shards. Scenarios are dealt to the shards in turn, so every
+ * shard gets a similar share of every feature.
+ * <p>
+ * The files of each shard are written to {@value #SHARDS_DIRECTORY}/shard-N and merged into
+ * 'reports/cucumber-tests.html', 'reports/cucumber-tests.json', 'reports/resource-metrics.csv' and
+ * 'logs/cucumber-tests.log'. Step timings are kept per shard, as are command profiles when the 'cucumber.plugin'
+ * system property of the run registers the command profile plugin. The directory and the log file of each shard are
+ * deleted before the shard starts, so files of a previous run are never merged.
+ * <p>
+ * Usage : ShardedRun &lt;shard count&gt; &lt;features directory&gt;
+ */
+public class ShardedRun {
+    static final String SHARDS_DIRECTORY = "build/shards";
+    private static final String GLUE = "com.amazon.test.stepDefinitions";
+    private static final String COMMAND_PROFILE_PLUGIN = "com.amazon.test.metrics.CommandProfilePlugin";
+    private static final Pattern SCENARIO = Pattern.compile("^(Scenario|Example):.*");
+    private static final Pattern SCENARIO_OUTLINE = Pattern.compile("^Scenario (Outline|Template):.*");
+    private static final Pattern EXAMPLES = Pattern.compile("^(Examples|Scenarios):.*");
+    // Project properties set as system properties, forwarded to the shards
+    private static final Pattern PROJECT_PROPERTY = Pattern.compile("[A-Z][A-Z0-9_]*");
+
+    private ShardedRun() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            System.err.println("Usage : ShardedRun <shard count> <features directory>");
+            System.exit(2);
+        }
+        int shardCount = Integer.parseInt(args[0]);
+        List<List<String>> shards = split(findScenarios(Paths.get(args[1])), shardCount);
+        System.out.println("Running " + shards.stream().mapToInt(List::size).sum() + " scenarios in " + shards.size() + " shards");
+
+        long startMillis = System.currentTimeMillis();
+        List<Process> processes = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            processes.add(start(shard, shards.get(shard)));
+        }
+        boolean passed = true;
+        for (int shard = 0; shard < processes.size(); shard++) {
+            int exitCode = processes.get(shard).waitFor();
+            System.out.println("Shard " + (shard + 1) + " finished with exit code " + exitCode
+                    + ", output in " + shardDirectory(shard).resolve("output.txt"));
+            passed &= exitCode == 0;
+        }
+        System.out.println("Shards finished in " + (System.currentTimeMillis() - startMillis) + " ms");
+
+        List<Path> shardDirectories = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) shardDirectories.add(shardDirectory(shard));
+        ShardReports.merge(shardDirectories);
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Finds the scenarios of the feature files of a directory.
+     *
+     * @param featuresDirectory directory of the feature files
+     * @return 'path:line' locations of the scenarios, one per Examples row for Scenario Outlines
+     * @throws IOException if feature files cannot be read
+     */
+    static List<String> findScenarios(Path featuresDirectory) throws IOException {
+        List<Path> featureFiles;
+        try (Stream<Path> paths = Files.walk(featuresDirectory)) {
+            featureFiles = paths.filter(path -> path.toString().endsWith(".feature")).sorted().collect(Collectors.toList());
+        }
+        List<String> scenarios = new ArrayList<>();
+        for (Path featureFile : featureFiles) {
+            List<String> lines = Files.readAllLines(featureFile, StandardCharsets.UTF_8);
+            boolean inOutline = false;
+            boolean inExamples = false;
+            boolean headerRead = false;
+            for (int index = 0; index < lines.size(); index++) {
+                String line = lines.get(index).trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (inExamples && line.startsWith("|")) {
+                    // First row of the table is the header
+                    if (headerRead) scenarios.add(featureFile + ":" + (index + 1));
+                    headerRead = true;
+                    continue;
+                }
+                inExamples = false;
+                if (SCENARIO_OUTLINE.matcher(line).matches()) {
+                    inOutline = true;
+                } else if (SCENARIO.matcher(line).matches()) {
+                    inOutline = false;
+                    scenarios.add(featureFile + ":" + (index + 1));
+                } else if (inOutline && EXAMPLES.matcher(line).matches()) {
+                    inExamples = true;
+                    headerRead = false;
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Deals scenarios to shards in turn.
+     *
+     * @param scenarios  scenario locations
+     * @param shardCount number of shards, reduced to the number of scenarios if greater
+     * @return scenario locations of each shard
+     */
+    static List<List<String>> split(List<String> scenarios, int shardCount) {
+        int count = Math.max(1, Math.min(shardCount, scenarios.size()));
+        List<List<String>> shards = new ArrayList<>();
+        for (int shard = 0; shard < count; shard++) shards.add(new ArrayList<>());
+        for (int index = 0; index < scenarios.size(); index++) {
+            shards.get(index % count).add(scenarios.get(index));
+        }
+        return shards;
+    }
+
+    static Path shardDirectory(int shard) {
+        return Paths.get(SHARDS_DIRECTORY, "shard-" + (shard + 1));
+    }
+
+    private static Process start(int shard, List<String> scenarios) throws IOException {
+        Path directory = shardDirectory(shard);
+        deleteRecursively(directory);
+        Files.deleteIfExists(ShardReports.shardLogFile(shard));
+        Files.createDirectories(directory);
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (Map.Entry<Object, Object> property : System.getProperties().entrySet()) {
+            String key = property.getKey().toString();
+            if (PROJECT_PROPERTY.matcher(key).matches()) command.add("-D" + key + "=" + property.getValue());
+        }
+        // One browser per shard, log and resource metrics written per shard
+        command.add("-DBROWSER_POOL_SIZE=1");
+        command.add("-DLOG_SHARD=-shard-" + (shard + 1));
+        command.add("-DRESOURCE_METRICS_FILE=" + directory.resolve(ShardReports.RESOURCE_METRICS_FILE));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("io.cucumber.core.cli.Main");
+        addPlugin(command, "progress");
+        addPlugin(command, "message:" + directory.resolve(ShardReports.MESSAGES_FILE));
+        addPlugin(command, "json:" + directory.resolve(ShardReports.JSON_FILE));
+        addPlugin(command, "com.amazon.test.metrics.StepTimingPlugin:" + directory.resolve("step-timings"));
+        // Command profiling is opt-in, each shard writes its own profile instead of the file of the run
+        if (System.getProperty("cucumber.plugin", "").contains(COMMAND_PROFILE_PLUGIN)) {
+            addPlugin(command, COMMAND_PROFILE_PLUGIN + ":" + directory.resolve("command-profile.json"));
+        }
+        command.add("--glue");
+        command.add(GLUE);
+        command.addAll(scenarios);
+        File output = directory.resolve("output.txt").toFile();
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(output).start();
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void addPlugin(List<String> command, String plugin) {
+        command.add("--plugin");
+        command.add(plugin);
+    }
+}
@@ -0,0 +1,73 @@
+package com.amazon.test.shard;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShardedRunTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void findsScenariosAndExamplesRows() throws IOException {
+        Path featureFile = writeFeature("Search.feature",
+                "Feature: Search",
+                "",
+                "  Background:",
+                "    Given user visits Home page",
+                "",
+                "  Scenario: Search by keyword",
+                "    When user searches 'laptop'",
+                "",
+                "  # Scenario: commented out",
+                "  Scenario Outline: Search by category",
+                "    When user searches <keyword>",
+                "    Examples:",
+                "      | keyword |",
+                "      | phone   |",
+                "",
+                "      | tablet  |",
+                "",
+                "  Example: Search nothing",
+                "    When user searches ''");
+        assertEquals(Arrays.asList(featureFile + ":6", featureFile + ":14", featureFile + ":16", featureFile + ":18"),
+                ShardedRun.findScenarios(folder.getRoot().toPath()));
+    }
+
+    @Test
+    public void findsScenariosOfAllFeatureFilesInPathOrder() throws IOException {
+        Path second = writeFeature("b/Second.feature", "Feature: Second", "  Scenario: second", "    Given a step");
+        Path first = writeFeature("a/First.feature", "Feature: First", "  Scenario: first", "    Given a step");
+        assertEquals(Arrays.asList(first + ":2", second + ":2"), ShardedRun.findScenarios(folder.getRoot().toPath()));
+    }
+
+    @Test
+    public void dealsScenariosToShardsInTurn() {
+        assertEquals(Arrays.asList(Arrays.asList("a:1", "a:3", "b:1"), Arrays.asList("a:2", "a:4")),
+                ShardedRun.split(Arrays.asList("a:1", "a:2", "a:3", "a:4", "b:1"), 2));
+    }
+
+    @Test
+    public void limitsShardsToScenarioCount() {
+        assertEquals(Arrays.asList(Collections.singletonList("a:1"), Collections.singletonList("a:2")),
+                ShardedRun.split(Arrays.asList("a:1", "a:2"), 4));
+        assertEquals(Collections.singletonList(Collections.emptyList()), ShardedRun.split(Collections.emptyList(), 4));
+    }
+
+    private Path writeFeature(String name, String... lines) throws IOException {
+        Path featureFile = folder.getRoot().toPath().resolve(name);
+        Files.createDirectories(featureFile.getParent());
+        Files.write(featureFile, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return featureFile;
+    }
+}
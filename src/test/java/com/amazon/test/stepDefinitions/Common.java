@@ -4,14 +4,19 @@ import com.amazon.test.ProjectProperties;
 import com.amazon.test.Selenium;
 import com.amazon.test.context.ContextItem;
 import com.amazon.test.context.ScenarioContext;
+import com.amazon.test.failure.FailureArtifacts;
+import com.amazon.test.metrics.PageLoadMetrics;
 import com.amazon.test.util.Credentials;
 import com.amazon.test.util.Field;
+import com.amazon.test.util.Log;
 import com.amazon.test.web.page.Page;
+import com.amazon.test.web.page.PageWait;
 import com.amazon.test.web.page.PageType;
 import com.amazon.test.web.ui.WebButton;
 import com.amazon.test.web.ui.WebForm;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -23,39 +28,56 @@ import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.support.ui.UnexpectedTagNameException;
 
 import java.net.MalformedURLException;
+import java.util.Collections;
 
 public class Common extends TestCase {
     private static final Logger logger = Logger.getLogger(Common.class.getCanonicalName());
+    private final ScenarioContext scenarioContext;
+
+    /**
+     * Constructs the step definitions of a scenario.
+     *
+     * @param scenarioContext context of the scenario, injected by Cucumber
+     */
+    public Common(ScenarioContext scenarioContext) {
+        this.scenarioContext = scenarioContext;
+    }
 
     @Before
     public void beforeEachScenario() {
-        logger.debug("beforeEachScenario - Starting selenium browser and creating scenario context");
+        logger.debug("beforeEachScenario - Leasing selenium browser");
         Selenium.startBrowser();
-        ScenarioContext.create();
+        if (ProjectProperties.isResourceMetricsEnabled()) PageLoadMetrics.start();
     }
 
     @After
-    public void afterEachScenario() {
-        logger.debug("afterEachScenario - Quitting selenium browser and purging scenario context");
+    public void afterEachScenario(Scenario scenario) {
+        logger.debug("afterEachScenario - Releasing selenium browser");
+        // Capture the browser state of a failure before the browser is reset
+        if (scenario.isFailed() && ProjectProperties.isFailureArtifactsEnabled()) FailureArtifacts.capture(scenario);
+        if (PageLoadMetrics.isCollecting()) {
+            // Measure the last page of the scenario before the browser is reset
+            PageLoadMetrics.capture(Selenium.browser());
+            PageLoadMetrics.finish(scenario.getName());
+        }
         Selenium.quitBrowser();
-        ScenarioContext.purge();
     }
 
     /**
      * This step definition sets the type of the page to visit.
      * The name of page set in the feature file is captured by this
-     * step definition method and is used to create {@link PageType} enum by invoking {@link PageType#makeFrom(String)}
-     * method and passing page name as argument. {@link PageType} enum is set in the {@link ScenarioContext} using key {@link ContextItem#VISIT_PAGE_TYPE} which is
-     * later required by the step definition {@link Common#pageIsLoaded()} for creating {@link Page} corresponding to {@link PageType} enum.
+     * step definition method and is used to get the {@link PageType} by invoking {@link PageType#makeFrom(String)}
+     * method and passing page name as argument. {@link PageType} is set in the {@link ScenarioContext} using key {@link ContextItem#VISIT_PAGE_TYPE} which is
+     * later required by the step definition {@link Common#pageIsLoaded()} for creating {@link Page} corresponding to {@link PageType}.
      *
      * @param pageName Name of the page to visit
      */
     @Given("^user visits (.*) page$")
     public void userVisitsPage(String pageName) {
-        logger.debug("Step definition - user visits " + pageName + " page");
+        Log.debug(logger, "Step definition - user visits {} page", pageName);
         try {
-            logger.debug("Setting ContextItem " + ContextItem.VISIT_PAGE_TYPE);
-            ScenarioContext.setItem(ContextItem.VISIT_PAGE_TYPE, PageType.makeFrom(pageName));
+            Log.debug(logger, "Setting ContextItem {}", ContextItem.VISIT_PAGE_TYPE);
+            scenarioContext.setItem(ContextItem.VISIT_PAGE_TYPE, PageType.makeFrom(pageName));
             logger.debug("STEP OK");
         } catch (InvalidArgumentException exception) {
             logger.error(exception);
@@ -67,16 +89,15 @@ public class Common extends TestCase {
      * This step definition prepares the target {@link Page} and visits it so the page becomes active.
      * Data required to create a {@link Page} is extracted from the {@link ScenarioContext}.
      * Prior to this step definition invocation, it is required to set {@link ContextItem#VISIT_PAGE_TYPE} context item
-     * in the {@link ScenarioContext} to a {@link PageType} enum for the determination of the target {@link Page} to load.
+     * in the {@link ScenarioContext} to a {@link PageType} for the determination of the target {@link Page} to load.
      */
     @And("^page is loaded$")
     public void pageIsLoaded() {
         logger.debug("Step definition - page is loaded");
-        logger.debug("Getting ContextItem " + ContextItem.VISIT_PAGE_TYPE);
-        Object pageTypeItem = ScenarioContext.getItem(ContextItem.VISIT_PAGE_TYPE);
+        Log.debug(logger, "Getting ContextItem {}", ContextItem.VISIT_PAGE_TYPE);
+        PageType pageType = scenarioContext.getItem(ContextItem.VISIT_PAGE_TYPE);
         try {
-            assertTrue("Expected - ContextItem " + ContextItem.VISIT_PAGE_TYPE + " , Actual - " + pageTypeItem, pageTypeItem instanceof PageType);
-            PageType pageType = (PageType) pageTypeItem;
+            assertNotNull("Expected - ContextItem " + ContextItem.VISIT_PAGE_TYPE + " , Actual - " + pageType, pageType);
             Page pageToVisit = Page.make(ProjectProperties.getHomeUrl(), pageType, null);
             pageToVisit.visit();
             logger.debug("STEP OK");
@@ -97,7 +118,7 @@ public class Common extends TestCase {
      */
     @And("^user clicks (.*) button$")
     public void userClicksButton(String buttonLabel) {
-        logger.debug("Step definition - user clicks " + buttonLabel + " button");
+        Log.debug(logger, "Step definition - user clicks {} button", buttonLabel);
         try {
             WebButton btn = new WebButton(buttonLabel);
             boolean clicked = btn.click();
@@ -112,27 +133,27 @@ public class Common extends TestCase {
     /**
      * This step definition asserts the browser redirection to the given page.
      * The redirected is verified by comparing the URLs of the expected and actual {@link Page}s.
+     * The browser is given up to the configured page wait timeout to complete the redirection.
      *
      * @param pageName Name of the page browser redirected to
      */
     @Then("^browser redirects to (.*) page$")
     public void browserRedirectsTo(String pageName) {
-        logger.debug("Step definition - browser redirects to " + pageName + " page");
+        Log.debug(logger, "Step definition - browser redirects to {} page", pageName);
         try {
-            // Wait for few seconds for redirection to get complete
-            Thread.sleep(2000);
             Page expectedPage = Page.make(ProjectProperties.getHomeUrl(), PageType.makeFrom(pageName), null);
+            // Wait for redirection to get complete
+            new PageWait(ProjectProperties.getPageWaitTimeoutMillis()).untilPathMatches(expectedPage);
             Page currentPage = Page.currentPage();
-            assertEquals("Actual redirect base url is different than expected",
-                    expectedPage.getBaseUrl(),
-                    currentPage.getBaseUrl()
+            assertTrue("Actual redirect base url " + currentPage.getBaseUrl() + " is different than expected " + expectedPage.getBaseUrl(),
+                    expectedPage.getPageUrl().hasSameBaseUrl(currentPage.getPageUrl())
             );
             assertEquals("Actual redirect url path is different than expected",
                     expectedPage.getPathSegment(),
                     currentPage.getPathSegment()
             );
             logger.debug("STEP OK");
-        } catch (MalformedURLException | InterruptedException | InvalidArgumentException exception) {
+        } catch (MalformedURLException | InvalidArgumentException exception) {
             logger.error(exception);
             fail(exception.getMessage());
         } catch (AssertionFailedError assertionFailure) {
@@ -146,28 +167,24 @@ public class Common extends TestCase {
      * The name of the field and the value to set is captured from the feature file by this step definition.
      * To determine the field type as well as its unique id, {@link Field} enum is created for the given field name.
      * Field type is determined by invoking {@link Field#getType()} method and unique id determined by invoking
-     * {@link Field#getId()} method. {@link WebForm} class defines methods which are used to set field values.
+     * {@link Field#getId()} method. The field is set by invoking {@link WebForm#fill(java.util.Map)} method.
      *
      * @param fieldName  name of the field
      * @param fieldValue value to set in the field
      */
     @And("^user sets (.*) to value (.*)$")
     public void userFillsFieldWithValue(String fieldName, String fieldValue) {
-        logger.debug("Step definition - user sets " + fieldName + " to value " + fieldValue);
+        Log.debug(logger, "Step definition - user sets {} to value {}", fieldName, fieldValue);
         try {
+            // Session of the user is captured once signed in with these credentials
+            if (fieldName.equals(Field.EmailPhoneField.getLabel())) scenarioContext.setItem(ContextItem.SIGN_IN_CREDENTIAL, fieldValue);
             if (fieldName.equals(Field.EmailPhoneField.getLabel()) ||
                     fieldName.equals(Field.PasswordField.getLabel())) {
                 fieldValue = Credentials.decode(ProjectProperties.getProperty(fieldValue));
             }
             WebForm formToFill = new WebForm();
             Field formField = Field.makeFromLabel(fieldName);
-            switch (formField.getType()) {
-                case TextField:
-                    formToFill.setText(formField.getId(), fieldValue);
-                    break;
-                case SelectField:
-                    formToFill.selectOption(formField.getId(), fieldValue);
-            }
+            formToFill.fill(Collections.singletonMap(formField, fieldValue));
             logger.debug("STEP OK");
         } catch (InvalidArgumentException | NoSuchElementException | UnexpectedTagNameException exception) {
             logger.error(exception);
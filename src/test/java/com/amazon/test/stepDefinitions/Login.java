@@ -1,17 +1,118 @@
 package com.amazon.test.stepDefinitions;
 
 import com.amazon.test.ProjectProperties;
+import com.amazon.test.Selenium;
+import com.amazon.test.context.ContextItem;
+import com.amazon.test.context.ScenarioContext;
+import com.amazon.test.util.Credentials;
+import com.amazon.test.util.Field;
+import com.amazon.test.util.Log;
+import com.amazon.test.web.SessionSnapshot;
 import com.amazon.test.web.page.Page;
 import com.amazon.test.web.page.PageType;
+import com.amazon.test.web.page.PageWait;
+import com.amazon.test.web.ui.WebButton;
+import com.amazon.test.web.ui.WebForm;
 import io.cucumber.java.en.And;
+import io.cucumber.java.en.Given;
 import junit.framework.AssertionFailedError;
 import junit.framework.TestCase;
 import org.apache.log4j.Logger;
+import org.openqa.selenium.InvalidArgumentException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.UnexpectedTagNameException;
 
 import java.net.MalformedURLException;
+import java.util.Collections;
 
 public class Login extends TestCase {
     private static final Logger logger = Logger.getLogger(Login.class.getCanonicalName());
+    private static final String LABEL_SIGN_IN_BUTTON = "Sign in";
+    private static final String LABEL_CONTINUE_BUTTON = "Continue";
+    private static final String LABEL_SUBMIT_BUTTON = "Sign In";
+    private static final String TEXT_SIGN_IN = "sign in";
+    private static final String SCRIPT_CLEAR_LOCAL_STORAGE = "window.localStorage.clear();";
+    private final ScenarioContext scenarioContext;
+
+    /**
+     * Constructs the step definitions of a scenario.
+     *
+     * @param scenarioContext context of the scenario, injected by Cucumber
+     */
+    public Login(ScenarioContext scenarioContext) {
+        this.scenarioContext = scenarioContext;
+    }
+
+    /**
+     * This step definition signs the user in with the given credentials and loads the Home page.
+     * If a {@link SessionSnapshot} of a previous sign in with the same credentials is cached, the session is restored
+     * from it instead of going through the sign in flow. If the user is then found not signed in, e.g. as the session
+     * expired on the server, the snapshot is invalidated and the user goes through the sign in flow.
+     *
+     * @param emailKey    key of the encoded email in project.properties, e.g. USER_EMAIL
+     * @param passwordKey key of the encoded password in project.properties, e.g. USER_PASSWORD
+     */
+    @Given("^user signs in with (.*) and (.*)$")
+    public void userSignsIn(String emailKey, String passwordKey) {
+        Log.debug(logger, "Step definition - user signs in with {} and {}", emailKey, passwordKey);
+        try {
+            scenarioContext.setItem(ContextItem.SIGN_IN_CREDENTIAL, emailKey);
+            Page homePage = Page.make(ProjectProperties.getHomeUrl(), PageType.Home, null);
+            SessionSnapshot snapshot = ProjectProperties.isSessionSnapshotEnabled() ? SessionSnapshot.find(emailKey) : null;
+            if (snapshot == null || !restoreSession(snapshot, homePage, emailKey)) {
+                signIn(homePage, emailKey, passwordKey);
+                userSignedIn();
+            }
+            logger.debug("STEP OK");
+        } catch (MalformedURLException | InvalidArgumentException | NoSuchElementException | UnexpectedTagNameException exception) {
+            logger.error(exception);
+            fail(exception.getMessage());
+        } catch (AssertionFailedError assertionFailure) {
+            logger.error(assertionFailure);
+            throw assertionFailure;
+        }
+    }
+
+    /**
+     * Restores a cached session and loads the Home page.
+     * A stale snapshot is not a failure of the step, so the restored session is checked without asserting.
+     *
+     * @return true if the user is signed in, false if the snapshot is stale and has been invalidated
+     */
+    private boolean restoreSession(SessionSnapshot snapshot, Page homePage, String emailKey) {
+        Log.debug(logger, "Restoring session snapshot of {}", emailKey);
+        snapshot.restoreTo(Selenium.browser());
+        homePage.visit();
+        if (isSignedIn(Page.currentPage())) return true;
+        Log.info(logger, "Session snapshot of {} is stale, signing in", emailKey);
+        SessionSnapshot.invalidate(emailKey);
+        // Remove the restored session, so that the sign in flow starts from a signed out browser
+        ((JavascriptExecutor) Selenium.browser()).executeScript(SCRIPT_CLEAR_LOCAL_STORAGE);
+        Selenium.browser().manage().deleteAllCookies();
+        return false;
+    }
+
+    /**
+     * Determines whether the user is signed in on the given page, i.e. the page content does not contain 'sign in'
+     * text, which also covers the 'Hello, sign in' greeting.
+     */
+    private static boolean isSignedIn(Page page) {
+        return !page.contentContainsIgnoreCase(TEXT_SIGN_IN);
+    }
+
+    private void signIn(Page homePage, String emailKey, String passwordKey) throws MalformedURLException {
+        PageWait pageWait = new PageWait(ProjectProperties.getPageWaitTimeoutMillis());
+        homePage.visit();
+        assertTrue("Expected - clicked button " + LABEL_SIGN_IN_BUTTON, new WebButton(LABEL_SIGN_IN_BUTTON).click());
+        assertTrue("Expected - redirected to sign in page", pageWait.untilPathMatches(Page.make(ProjectProperties.getHomeUrl(), PageType.SignIn, null)));
+        new WebForm().fill(Collections.singletonMap(Field.EmailPhoneField, Credentials.decode(ProjectProperties.getProperty(emailKey))));
+        assertTrue("Expected - clicked button " + LABEL_CONTINUE_BUTTON, new WebButton(LABEL_CONTINUE_BUTTON).click());
+        new WebForm().fill(Collections.singletonMap(Field.PasswordField, Credentials.decode(ProjectProperties.getProperty(passwordKey))));
+        assertTrue("Expected - clicked button " + LABEL_SUBMIT_BUTTON, new WebButton(LABEL_SUBMIT_BUTTON).click());
+        assertTrue("Expected - redirected to Home page", pageWait.untilPathMatches(homePage));
+    }
 
     /**
      * This step definition asserts that user is not currently signed in by checking the presence of 'sign in' text
@@ -22,7 +123,7 @@ public class Login extends TestCase {
         logger.debug("Step definition - user is not signed in");
         try {
             Page currentPage = Page.currentPage();
-            assertTrue("Expected - page contains 'sign in' text, Actual - page does not contain 'sign in' text", currentPage.contentContainsIgnoreCase("sign in"));
+            assertFalse("Expected - page contains 'sign in' text, Actual - page does not contain 'sign in' text", isSignedIn(currentPage));
             logger.debug("STEP OK");
         } catch (AssertionFailedError assertionFailure) {
             logger.error(assertionFailure);
@@ -33,21 +134,38 @@ public class Login extends TestCase {
     /**
      * This step definition asserts that the user is currently signed in by checking the absence of 'sign in' text
      * and 'Hello, Sign in' text. When the user is signed in, page content does not contain 'sign in' text and 'Hello, Sign in' text.
+     * Once the user signed in with the credentials set in the {@link ScenarioContext} using key
+     * {@link ContextItem#SIGN_IN_CREDENTIAL}, the session is captured in a {@link SessionSnapshot} unless one is cached.
+     * The cached snapshot is invalidated if the user is not signed in.
      */
     @And("^user is signed in$")
     public void userSignedIn() {
         logger.debug("Step definition - user is signed in");
+        String credentialKey = scenarioContext.getItem(ContextItem.SIGN_IN_CREDENTIAL);
         try {
             Page currentPage = Page.currentPage();
-            assertFalse("Expected - page does not contain 'sign in' text, Actual - page contains 'sign in' text", currentPage.contentContainsIgnoreCase("sign in"));
-            assertFalse("Expected - page does not contain 'Hello, sign in' text, Actual - page contains 'Hello, sign in' text", currentPage.contentContainsIgnoreCase("Hello, sign in"));
+            assertTrue("Expected - page does not contain 'sign in' text, Actual - page contains 'sign in' text", isSignedIn(currentPage));
+            if (credentialKey != null && ProjectProperties.isSessionSnapshotEnabled() && SessionSnapshot.find(credentialKey) == null) {
+                captureSession(credentialKey);
+            }
             logger.debug("STEP OK");
         } catch (AssertionFailedError assertionFailure) {
+            if (credentialKey != null) SessionSnapshot.invalidate(credentialKey);
             logger.error(assertionFailure);
             throw assertionFailure;
         }
     }
 
+    private void captureSession(String credentialKey) {
+        try {
+            SessionSnapshot.store(credentialKey, SessionSnapshot.capture(Selenium.browser(), ProjectProperties.getHomeUrl(),
+                    ProjectProperties.getSessionSnapshotTtlMillis()));
+        } catch (WebDriverException exception) {
+            // The scenario goes on, the next sign in with these credentials goes through the sign in flow
+            Log.warn(logger, "Session snapshot of {} not captured : {}", credentialKey, exception.getMessage());
+        }
+    }
+
     /**
      * This step definition verifies that the given field is present on the sign in page.
      *
@@ -56,7 +174,7 @@ public class Login extends TestCase {
     @And("^sign in page asks for (.*)$")
     public void signInPageAsksField(String fieldName) {
         try {
-            logger.debug("Step definition - sign in page asks for " + fieldName);
+            Log.debug(logger, "Step definition - sign in page asks for {}", fieldName);
             Page currentPage = Page.currentPage();
             Page signInPage = Page.make(ProjectProperties.getHomeUrl(), PageType.SignIn, null);
             // First verify user is on sign in page
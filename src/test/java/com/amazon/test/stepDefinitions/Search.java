@@ -1,5 +1,6 @@
 package com.amazon.test.stepDefinitions;
 
+import com.amazon.test.util.Log;
 import com.amazon.test.web.ProductSearch;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Then;
@@ -20,7 +21,7 @@ public class Search extends TestCase {
      */
     @And("^user enters (.*) in search box$")
     public void userEntersKeyword(String searchKeyword) {
-        logger.debug("Step definition - user enters " + searchKeyword + " in search box");
+        Log.debug(logger, "Step definition - user enters {} in search box", searchKeyword);
         try {
             ProductSearch.setKeyword(searchKeyword);
             logger.debug("STEP OK");
@@ -37,7 +38,7 @@ public class Search extends TestCase {
      */
     @And("^user selects (.*) category in search box$")
     public void userSelectsCategory(String categoryName) {
-        logger.debug("Step definition - user selects " + categoryName + " category in search box");
+        Log.debug(logger, "Step definition - user selects {} category in search box", categoryName);
         try {
             ProductSearch.selectCategory(categoryName);
             logger.debug("STEP OK");
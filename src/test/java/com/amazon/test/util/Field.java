@@ -8,10 +8,12 @@ import org.openqa.selenium.InvalidArgumentException;
  * Field label stores the displayed label for the field.
  * Field id helps in accessing target {@link org.openqa.selenium.WebElement} of the field.
  * Field type helps to determine user interactions that can be performed on field.
+ * Fields requiring keystrokes are typed key by key, as the page handles key events of such fields,
+ * other fields can be filled directly.
  */
 public enum Field {
-    EmailPhoneField(Field.LABEL_EMAIL_PHONE_FIELD, Field.ID_EMAIL_PHONE_FIELD, FormFieldType.TextField),
-    PasswordField(Field.LABEL_PASSWORD_FIELD, Field.ID_PASSWORD_FIELD, FormFieldType.TextField);
+    EmailPhoneField(Field.LABEL_EMAIL_PHONE_FIELD, Field.ID_EMAIL_PHONE_FIELD, FormFieldType.TextField, false),
+    PasswordField(Field.LABEL_PASSWORD_FIELD, Field.ID_PASSWORD_FIELD, FormFieldType.TextField, true);
 
     private static final String LABEL_EMAIL_PHONE_FIELD = "Email or mobile phone number";
     private static final String LABEL_PASSWORD_FIELD = "Password";
@@ -22,6 +24,7 @@ public enum Field {
     private final String label; // Display label text for the field
     private final String id; // id of the field
     private final FormFieldType type; // type of the field
+    private final boolean requiresKeystrokes; // whether value must be typed key by key
 
     /**
      * Creates {@link Field} enum from the display label for the field.
@@ -47,12 +50,14 @@ public enum Field {
      *
      * @param label display label for field
      * @param id    id targeting {@link org.openqa.selenium.WebElement} of the field
-     * @param type  {@link FormFieldType} enum for field type
+     * @param type               {@link FormFieldType} enum for field type
+     * @param requiresKeystrokes whether value of the field must be typed key by key
      */
-    Field(String label, String id, FormFieldType type) {
+    Field(String label, String id, FormFieldType type, boolean requiresKeystrokes) {
         this.label = label;
         this.id = id;
         this.type = type;
+        this.requiresKeystrokes = requiresKeystrokes;
     }
 
     /**
@@ -81,4 +86,13 @@ public enum Field {
     public FormFieldType getType() {
         return type;
     }
+
+    /**
+     * Determines whether the value of the field must be typed key by key.
+     *
+     * @return true if field requires keystrokes otherwise false
+     */
+    public boolean requiresKeystrokes() {
+        return requiresKeystrokes;
+    }
 }
@@ -0,0 +1,92 @@
+package com.amazon.test.util;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+/**
+ * Class providing parameterized log messages for log4j loggers.
+ * A message pattern refers to its arguments with '{}' placeholders, e.g. {@code Log.debug(logger, "user enters {}", keyword)}.
+ * The message is only built when the level is enabled, so logging a disabled message costs a level check instead of
+ * the string concatenation done before calling the logger. Fixed arity methods avoid allocating an argument array,
+ * messages with more arguments are given an argument array.
+ */
+public class Log {
+    private static final String PLACEHOLDER = "{}";
+
+    private Log() {
+    }
+
+    public static void debug(Logger logger, String pattern, Object argument) {
+        if (logger.isDebugEnabled()) logger.debug(format(pattern, argument, null, null, 1));
+    }
+
+    public static void debug(Logger logger, String pattern, Object argument1, Object argument2) {
+        if (logger.isDebugEnabled()) logger.debug(format(pattern, argument1, argument2, null, 2));
+    }
+
+    public static void debug(Logger logger, String pattern, Object argument1, Object argument2, Object argument3) {
+        if (logger.isDebugEnabled()) logger.debug(format(pattern, argument1, argument2, argument3, 3));
+    }
+
+    public static void info(Logger logger, String pattern, Object argument) {
+        if (logger.isInfoEnabled()) logger.info(format(pattern, argument, null, null, 1));
+    }
+
+    public static void info(Logger logger, String pattern, Object argument1, Object argument2) {
+        if (logger.isInfoEnabled()) logger.info(format(pattern, argument1, argument2, null, 2));
+    }
+
+    public static void info(Logger logger, String pattern, Object... arguments) {
+        if (logger.isInfoEnabled()) logger.info(format(pattern, arguments));
+    }
+
+    public static void warn(Logger logger, String pattern, Object argument) {
+        if (logger.isEnabledFor(Level.WARN)) logger.warn(format(pattern, argument, null, null, 1));
+    }
+
+    public static void warn(Logger logger, String pattern, Object argument1, Object argument2) {
+        if (logger.isEnabledFor(Level.WARN)) logger.warn(format(pattern, argument1, argument2, null, 2));
+    }
+
+    /**
+     * Replaces the placeholders of the pattern with the given arguments.
+     *
+     * @param pattern       message pattern
+     * @param argument1     first argument
+     * @param argument2     second argument
+     * @param argument3     third argument
+     * @param argumentCount number of arguments used
+     * @return formatted message, extra placeholders are left as is
+     */
+    static String format(String pattern, Object argument1, Object argument2, Object argument3, int argumentCount) {
+        StringBuilder message = new StringBuilder(pattern.length() + 32);
+        int start = 0;
+        for (int argument = 0; argument < argumentCount; argument++) {
+            int placeholder = pattern.indexOf(PLACEHOLDER, start);
+            if (placeholder < 0) break;
+            message.append(pattern, start, placeholder)
+                    .append(argument == 0 ? argument1 : argument == 1 ? argument2 : argument3);
+            start = placeholder + PLACEHOLDER.length();
+        }
+        return message.append(pattern, start, pattern.length()).toString();
+    }
+
+    /**
+     * Replaces the placeholders of the pattern with the given arguments.
+     *
+     * @param pattern   message pattern
+     * @param arguments arguments
+     * @return formatted message, extra placeholders are left as is
+     */
+    static String format(String pattern, Object[] arguments) {
+        StringBuilder message = new StringBuilder(pattern.length() + 16 * arguments.length);
+        int start = 0;
+        for (Object argument : arguments) {
+            int placeholder = pattern.indexOf(PLACEHOLDER, start);
+            if (placeholder < 0) break;
+            message.append(pattern, start, placeholder).append(argument);
+            start = placeholder + PLACEHOLDER.length();
+        }
+        return message.append(pattern, start, pattern.length()).toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.amazon.test.util;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single JVM shutdown hook stopping the services of the run one after the other, in the order they are added.
+ * The shutdown hooks of a JVM run concurrently, so services stopping in hooks of their own could log after the
+ * asynchronous log is closed. The log is flushed and closed once all the services are stopped.
+ */
+public class ShutdownSequence {
+    private static final Logger logger = Logger.getLogger(ShutdownSequence.class.getCanonicalName());
+    private static final List<Runnable> tasks = new ArrayList<>();
+    private static boolean hookAdded;
+
+    private ShutdownSequence() {
+    }
+
+    /**
+     * Adds a task stopping a service when the JVM exits.
+     *
+     * @param task task to run, after the tasks added before it
+     */
+    public static synchronized void add(Runnable task) {
+        if (!hookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(ShutdownSequence::run, "shutdown-sequence"));
+            hookAdded = true;
+        }
+        tasks.add(task);
+    }
+
+    private static void run() {
+        List<Runnable> tasksToRun;
+        synchronized (ShutdownSequence.class) {
+            tasksToRun = new ArrayList<>(tasks);
+        }
+        for (Runnable task : tasksToRun) {
+            try {
+                task.run();
+            } catch (RuntimeException exception) {
+                // Next services are stopped anyway
+                logger.error("Shutdown task failed", exception);
+            }
+        }
+        LogManager.shutdown();
+    }
+}
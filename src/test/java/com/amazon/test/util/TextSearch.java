@@ -0,0 +1,59 @@
+package com.amazon.test.util;
+
+/**
+ * Class providing utility methods for searching text.
+ */
+public class TextSearch {
+
+    private TextSearch() {
+    }
+
+    /**
+     * Determines whether text contains the given text ignoring case sensitivity.
+     * Unlike lower casing both strings before searching, this method does not allocate any memory,
+     * which matters when the searched text is the content of a large page.
+     *
+     * @param text       text to search in
+     * @param textToFind text to find
+     * @return true if found otherwise false
+     */
+    public static boolean containsIgnoreCase(String text, String textToFind) {
+        return indexOfIgnoreCase(text, textToFind) >= 0;
+    }
+
+    /**
+     * Finds the first occurrence of the given text ignoring case sensitivity.
+     *
+     * @param text       text to search in
+     * @param textToFind text to find
+     * @return index of first occurrence or -1 if not found
+     */
+    public static int indexOfIgnoreCase(String text, String textToFind) {
+        int length = textToFind.length();
+        if (length == 0) return 0;
+        // Candidate positions are filtered on the first char before matching the rest of the text
+        char firstLower = Character.toLowerCase(textToFind.charAt(0));
+        char firstUpper = Character.toUpperCase(textToFind.charAt(0));
+        int lastStart = text.length() - length;
+        for (int i = 0; i <= lastStart; i++) {
+            char c = text.charAt(i);
+            if ((c == firstLower || c == firstUpper) && regionEqualsIgnoreCase(text, i + 1, textToFind, length)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the text at the given offset with the text to find, skipping the first char of the text to find.
+     */
+    private static boolean regionEqualsIgnoreCase(String text, int offset, String textToFind, int length) {
+        for (int j = 1; j < length; j++, offset++) {
+            char c1 = text.charAt(offset);
+            char c2 = textToFind.charAt(j);
+            if (c1 == c2) continue;
+            char u1 = Character.toUpperCase(c1);
+            char u2 = Character.toUpperCase(c2);
+            if (u1 != u2 && Character.toLowerCase(u1) != Character.toLowerCase(u2)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package com.amazon.test.web;
+
+import com.amazon.test.util.Log;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of resolved {@link WebElement}s of a browser session.
+ * Cached elements are valid for one document, identified by the page URL and a DOM generation marker which the
+ * cache stores in the window object of the document. A new document gets a new marker, so a navigation invalidates
+ * the cache automatically.
+ * <p>
+ * The document identity is only verified again after {@link LocatorCache#invalidate()} is called by an interaction
+ * which may load a new document, such as visiting a page or clicking a button. Elements turning stale for any
+ * other reason are evicted and resolved again by {@link LocatorCache#apply(By, Function)}.
+ * <p>
+ * A cache is confined to the thread using its browser session.
+ */
+public class LocatorCache {
+    private static final Logger logger = Logger.getLogger(LocatorCache.class.getCanonicalName());
+    private static final String SCRIPT_DOCUMENT_KEY = "return window.location.href + '#' + "
+            + "(window.__locatorCacheGeneration || (window.__locatorCacheGeneration = Date.now() + '.' + Math.random()));";
+
+    private final WebDriver driver;
+    private final HashMap<By, WebElement> elements = new HashMap<>();
+    private String documentKey;
+    private boolean documentVerified;
+    private long hitCount;
+    private long missCount;
+
+    public LocatorCache(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Finds the element in the current document, resolving it through the browser only if it is not cached.
+     *
+     * @param locator locator of the element
+     * @return element found
+     * @throws NoSuchElementException if element is not found in DOM
+     */
+    public WebElement findElement(By locator) throws NoSuchElementException {
+        verifyDocument();
+        WebElement element = elements.get(locator);
+        if (element != null) {
+            hitCount++;
+            return element;
+        }
+        missCount++;
+        element = driver.findElement(locator);
+        elements.put(locator, element);
+        return element;
+    }
+
+    /**
+     * Applies an action on the element found by {@link LocatorCache#findElement(By)}.
+     * If the cached element turned stale, it is evicted and the action is applied once again on a freshly resolved element.
+     *
+     * @param locator locator of the element
+     * @param action  action to apply on the element
+     * @param <T>     result type of the action
+     * @return result of the action
+     * @throws NoSuchElementException if element is not found in DOM
+     */
+    public <T> T apply(By locator, Function<WebElement, T> action) throws NoSuchElementException {
+        try {
+            return action.apply(findElement(locator));
+        } catch (StaleElementReferenceException exception) {
+            Log.debug(logger, "Evicting stale element {}", locator);
+            clear();
+            return action.apply(findElement(locator));
+        }
+    }
+
+    /**
+     * Marks that the browser may have loaded a new document.
+     * The document identity is verified on the next lookup and the cache is cleared if it changed.
+     */
+    public void invalidate() {
+        this.documentVerified = false;
+    }
+
+    /**
+     * Removes all cached elements.
+     */
+    public void clear() {
+        elements.clear();
+        documentKey = null;
+        documentVerified = false;
+    }
+
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Resets the hit and miss counters.
+     */
+    public void resetCounters() {
+        this.hitCount = 0;
+        this.missCount = 0;
+    }
+
+    private void verifyDocument() {
+        if (documentVerified) return;
+        String currentKey = String.valueOf(((JavascriptExecutor) driver).executeScript(SCRIPT_DOCUMENT_KEY));
+        if (!currentKey.equals(documentKey)) {
+            elements.clear();
+            documentKey = currentKey;
+        }
+        documentVerified = true;
+    }
+}
@@ -10,30 +10,37 @@ import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.UnexpectedTagNameException;
 
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
  * Class providing operations for searching a product on the website.
  */
 public final class ProductSearch {
-    private static final String ID_SEARCH_FORM = "nav-search-bar-form"; // search form id
+    private static final By LOCATOR_SEARCH_FORM = By.id("nav-search-bar-form"); // search form locator
     private static final String ID_SEARCH_FIELD = "twotabsearchtextbox"; // id of the search text field
     private static final String LABEL_SUBMIT_BUTTON = "Go"; // Label for the search button
     private static final String ID_CATEGORY_SELECT = "searchDropdownBox"; // id of the category select box
+    // Selector of the search results summary bar holding the results count
+    private static final String SELECTOR_RESULTS_SUMMARY = "[data-component-type=\"s-result-info-bar\"]";
     // Pattern to capture search results summary line.
-    private static final Pattern PATTERN_RESULTS_COUNT = Pattern.compile("\\d+-\\d+ of (over )?(\\d+[,\\d+]*) results for \"\\w+\"", Pattern.CASE_INSENSITIVE);
+    static final Pattern PATTERN_RESULTS_COUNT = Pattern.compile("\\d+-\\d+ of (over )?(\\d+[,\\d+]*) results for \"\\w+\"", Pattern.CASE_INSENSITIVE);
 
     private ProductSearch() {
     }
 
     /**
-     * Finds the search form element in the DOM of current webpage.
+     * Applies an action on the search form element of current webpage.
+     * The search form element is resolved through the {@link LocatorCache} of the browser,
+     * so repeated actions on the same page do not search the DOM again.
      *
-     * @return search form element
+     * @param action action to apply on the search form element
+     * @param <T>    result type of the action
+     * @return result of the action
      * @throws NoSuchElementException if search form element not found in DOM
      */
-    private static WebElement findFormElement() throws NoSuchElementException {
-        return Selenium.browser().findElement(By.id(ID_SEARCH_FORM));
+    private static <T> T withFormElement(Function<WebElement, T> action) throws NoSuchElementException {
+        return Selenium.locatorCache().apply(LOCATOR_SEARCH_FORM, action);
     }
 
     /**
@@ -43,9 +50,11 @@ public final class ProductSearch {
      * @throws NoSuchElementException if search form or search text field not found in DOM
      */
     public static void setKeyword(String searchKeyword) throws NoSuchElementException {
-        WebElement searchFormElement = findFormElement();
         WebTextBox searchTextBox = new WebTextBox(ID_SEARCH_FIELD);
-        searchTextBox.setText(searchFormElement, searchKeyword);
+        withFormElement(searchFormElement -> {
+            searchTextBox.setText(searchFormElement, searchKeyword);
+            return null;
+        });
     }
 
     /**
@@ -56,9 +65,11 @@ public final class ProductSearch {
      * @throws UnexpectedTagNameException if category select box is not a select element
      */
     public static void selectCategory(String categoryName) throws NoSuchElementException, UnexpectedTagNameException {
-        WebElement searchFormElement = findFormElement();
         WebSelectBox categorySelectBox = new WebSelectBox(ID_CATEGORY_SELECT);
-        categorySelectBox.selectOption(searchFormElement, categoryName);
+        withFormElement(searchFormElement -> {
+            categorySelectBox.selectOption(searchFormElement, categoryName);
+            return null;
+        });
     }
 
     /**
@@ -68,20 +79,20 @@ public final class ProductSearch {
      * @throws NoSuchElementException if search form is not found in the DOM
      */
     public static boolean submit() throws NoSuchElementException {
-        WebElement searchFormElement = findFormElement();
         WebButton submitButton = new WebButton(LABEL_SUBMIT_BUTTON);
-        return submitButton.click(searchFormElement);
+        return withFormElement(submitButton::click);
     }
 
     /**
      * Checks whether page has search results or not. This method is intended to be called after invoking
      * {@link ProductSearch#submit()}.
+     * The results count is probed in the results summary bar inside the browser, so the page content is not copied.
      *
      * @return true if page displays search results otherwise false
      */
     public static boolean hasResults() {
         Page currentPage = Page.currentPage();
-        String resultsCount = currentPage.findContent(PATTERN_RESULTS_COUNT, 2);
+        String resultsCount = currentPage.probeContent(SELECTOR_RESULTS_SUMMARY, PATTERN_RESULTS_COUNT, 2);
         return resultsCount != null;
     }
 }
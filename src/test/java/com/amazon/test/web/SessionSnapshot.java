@@ -0,0 +1,126 @@
+package com.amazon.test.web;
+
+import com.amazon.test.util.Log;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot of a signed in browser session, i.e. the cookies and local storage of the website.
+ * A snapshot is captured once a user is signed in and restored into other browsers, so that scenarios
+ * needing a signed in user skip the sign in flow.
+ * <p>
+ * Snapshots are cached by the key of the credentials used to sign in, e.g. 'USER_EMAIL', and shared by all
+ * scenario threads. A snapshot expires after its time to live, as the website ends the session at some point,
+ * and is invalidated when a user restored from it is found not signed in.
+ */
+public final class SessionSnapshot {
+    private static final Logger logger = Logger.getLogger(SessionSnapshot.class.getCanonicalName());
+    private static final String SCRIPT_READ_LOCAL_STORAGE = "var items = {};"
+            + "for (var i = 0; i < localStorage.length; i++) { var key = localStorage.key(i); items[key] = localStorage.getItem(key); }"
+            + "return items;";
+    private static final String SCRIPT_WRITE_LOCAL_STORAGE = "var items = arguments[0];"
+            + "for (var key in items) localStorage.setItem(key, items[key]);";
+    private static final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // URL of the website the snapshot is captured from and restored to
+    private final String url;
+    private final Set<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final long expiresAtMillis;
+
+    private SessionSnapshot(String url, Set<Cookie> cookies, Map<String, String> localStorage, long expiresAtMillis) {
+        this.url = url;
+        this.cookies = Collections.unmodifiableSet(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    /**
+     * Captures the session of a browser which has a page of the website loaded.
+     *
+     * @param driver           browser of the signed in user
+     * @param url              URL of the website, where the snapshot is restored
+     * @param timeToLiveMillis time after which the snapshot expires
+     * @return captured snapshot
+     */
+    public static SessionSnapshot capture(WebDriver driver, String url, long timeToLiveMillis) {
+        Set<Cookie> cookies = new HashSet<>(driver.manage().getCookies());
+        Map<String, String> localStorage = new HashMap<>();
+        Object items = ((JavascriptExecutor) driver).executeScript(SCRIPT_READ_LOCAL_STORAGE);
+        if (items instanceof Map) {
+            for (Map.Entry<?, ?> item : ((Map<?, ?>) items).entrySet()) {
+                localStorage.put(String.valueOf(item.getKey()), String.valueOf(item.getValue()));
+            }
+        }
+        return new SessionSnapshot(url, cookies, localStorage, System.currentTimeMillis() + timeToLiveMillis);
+    }
+
+    /**
+     * Restores the session into a browser. The browser is navigated to the website, as cookies and local storage
+     * can only be set for the loaded page, and must load a page again to show the signed in state.
+     * Cookies which expired since the capture are not restored.
+     *
+     * @param driver browser to restore the session into
+     */
+    public void restoreTo(WebDriver driver) {
+        driver.get(this.url);
+        Date now = new Date();
+        WebDriver.Options options = driver.manage();
+        for (Cookie cookie : this.cookies) {
+            if (cookie.getExpiry() == null || cookie.getExpiry().after(now)) options.addCookie(cookie);
+        }
+        if (!this.localStorage.isEmpty()) {
+            ((JavascriptExecutor) driver).executeScript(SCRIPT_WRITE_LOCAL_STORAGE, this.localStorage);
+        }
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= this.expiresAtMillis;
+    }
+
+    /**
+     * Stores a snapshot in the cache, replacing the snapshot of the same credentials.
+     *
+     * @param credentialKey key of the credentials used to sign in
+     * @param snapshot      snapshot to store
+     */
+    public static void store(String credentialKey, SessionSnapshot snapshot) {
+        snapshots.put(credentialKey, snapshot);
+        Log.debug(logger, "Stored session snapshot of {} with {} cookies", credentialKey, snapshot.cookies.size());
+    }
+
+    /**
+     * Get the cached snapshot of the given credentials. An expired snapshot is removed from the cache.
+     *
+     * @param credentialKey key of the credentials used to sign in
+     * @return snapshot or null if no valid snapshot is cached
+     */
+    public static SessionSnapshot find(String credentialKey) {
+        SessionSnapshot snapshot = snapshots.get(credentialKey);
+        if (snapshot != null && snapshot.isExpired()) {
+            snapshots.remove(credentialKey, snapshot);
+            Log.debug(logger, "Session snapshot of {} expired", credentialKey);
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Removes the cached snapshot of the given credentials, e.g. when the session of the snapshot is no longer signed in.
+     *
+     * @param credentialKey key of the credentials used to sign in
+     */
+    public static void invalidate(String credentialKey) {
+        if (snapshots.remove(credentialKey) != null) Log.debug(logger, "Invalidated session snapshot of {}", credentialKey);
+    }
+}
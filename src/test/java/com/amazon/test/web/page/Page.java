@@ -1,8 +1,12 @@
 package com.amazon.test.web.page;
 
+import com.amazon.test.ProjectProperties;
 import com.amazon.test.Selenium;
+import com.amazon.test.metrics.PageLoadMetrics;
+import com.amazon.test.util.TextSearch;
 import okhttp3.HttpUrl;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 
@@ -15,8 +19,33 @@ import java.util.regex.Pattern;
  * Representation of a web page.
  * This class is responsible for building the url for the target page and make the target page currently active.
  * It also provides various operations which can be performed on currently active page.
+ * <p>
+ * The content of an active page is loaded from the browser on first access and then reused for that page.
+ * With the 'PAGE_CONTENT_MAX_CHARS' property set, only the given number of leading characters of the content
+ * is loaded. With the 'PAGE_CONTENT_MODE' property set to 'browser', content is not copied at all and content
+ * operations are evaluated inside the browser instead.
  */
 public class Page {
+    private static final String CONTENT_MODE_BROWSER = "browser";
+    private static final boolean CONTENT_IN_BROWSER = CONTENT_MODE_BROWSER.equalsIgnoreCase(ProjectProperties.getPageContentMode());
+    private static final int CONTENT_MAX_CHARS = ProjectProperties.getPageContentMaxChars();
+    // Reads the (possibly truncated) body text into the variable 'text'. First argument is the max chars or 0 for all
+    private static final String SCRIPT_READ_TEXT = "var body = document.body;"
+            + "var text = body ? body.innerText : '';"
+            + "if (arguments[0] > 0 && text.length > arguments[0]) text = text.substring(0, arguments[0]);";
+    private static final String SCRIPT_GET_CONTENT = SCRIPT_READ_TEXT + "return text;";
+    private static final String SCRIPT_CONTAINS = SCRIPT_READ_TEXT + "return text.indexOf(arguments[1]) >= 0;";
+    private static final String SCRIPT_CONTAINS_IGNORE_CASE = SCRIPT_READ_TEXT
+            + "return text.toLowerCase().indexOf(arguments[1].toLowerCase()) >= 0;";
+    private static final String SCRIPT_FIND = SCRIPT_READ_TEXT
+            + "var match = new RegExp(arguments[1], arguments[2]).exec(text);"
+            + "return match && match[arguments[3]] !== undefined ? match[arguments[3]] : null;";
+    private static final String SCRIPT_IS_EMPTY = SCRIPT_READ_TEXT + "return text.length === 0;";
+    // Matches a pattern against the text of the element selected by the first argument, or of the body if none
+    private static final String SCRIPT_PROBE = "var scope = document.querySelector(arguments[0]) || document.body;"
+            + "var text = scope ? scope.innerText : '';"
+            + "var match = new RegExp(arguments[1], arguments[2]).exec(text);"
+            + "return match && match[arguments[3]] !== undefined ? match[arguments[3]] : null;";
 
     /**
      * Constructs url and corresponding {@link Page} from given page configuration.
@@ -41,17 +70,18 @@ public class Page {
                 urlBuilder.addQueryParameter(param.getKey(), param.getValue());
             }
         }
-        return new Page(urlBuilder.build().toString());
+        return new Page(PageUrl.of(urlBuilder.build()));
     }
 
     /**
-     * Constructs the {@link Page} from the currently visited URL and also set its the source code and content.
+     * Constructs the {@link Page} from the currently visited URL.
+     * The content of the page is loaded from the browser when it is first accessed.
      *
      * @return currently visited {@link Page} object
      */
     public static Page currentPage() {
         Page page = new Page(currentUrl());
-        setPageContent(page);
+        page.active = true;
         return page;
     }
 
@@ -60,37 +90,102 @@ public class Page {
     }
 
     /**
-     * Sets the body content of current webpage in the given {@link Page} content.
+     * Loads the body content of current webpage.
      *
-     * @param page {@link Page} whose content to set
+     * @return body content or empty string if page has no body
      */
-    private static void setPageContent(Page page) {
+    private static String loadPageContent() {
+        if (CONTENT_MAX_CHARS > 0) {
+            return String.valueOf(executeScript(SCRIPT_GET_CONTENT));
+        }
         try {
             WebElement bodyElement = Selenium.browser().findElement(By.tagName("body"));
-            page.pageContent = bodyElement.getText();
+            return bodyElement.getText();
         } catch (NoSuchElementException exception) {
-            page.pageContent = "";
+            return "";
         }
     }
 
-    private final String url;
+    private static Object executeScript(String script, Object... arguments) {
+        Object[] scriptArguments = new Object[arguments.length + 1];
+        scriptArguments[0] = CONTENT_MAX_CHARS;
+        System.arraycopy(arguments, 0, scriptArguments, 1, arguments.length);
+        return ((JavascriptExecutor) Selenium.browser()).executeScript(script, scriptArguments);
+    }
+
+    /**
+     * Converts the flags of a {@link Pattern} to the flags of a javascript regular expression.
+     *
+     * @param regex pattern
+     * @return javascript regular expression flags
+     */
+    private static String toScriptFlags(Pattern regex) {
+        StringBuilder flags = new StringBuilder();
+        if ((regex.flags() & Pattern.CASE_INSENSITIVE) != 0) flags.append('i');
+        if ((regex.flags() & Pattern.MULTILINE) != 0) flags.append('m');
+        if ((regex.flags() & Pattern.DOTALL) != 0) flags.append('s');
+        return flags.toString();
+    }
+
+    private final PageUrl url;
+    // Content of the page, null until loaded
     private String pageContent;
+    // Whether the page is active in the browser, only content of an active page can be accessed
+    private boolean active;
+
+    Page(String url) {
+        this(PageUrl.parse(url));
+    }
 
-    private Page(String url) {
+    private Page(PageUrl url) {
         this.url = url;
-        this.pageContent = "";
     }
 
     public String getUrl() {
+        return this.url.getUrl();
+    }
+
+    /**
+     * Get the parsed URL of the page.
+     *
+     * @return parsed URL
+     */
+    public PageUrl getPageUrl() {
         return this.url;
     }
 
     /**
-     * Visits the url set in the {@link Page} to make it active and sets the page content.
+     * Visits the url set in the {@link Page} to make it active.
+     * The content of the page is loaded from the browser when it is first accessed.
      */
     public void visit() {
-        Selenium.browser().get(this.url);
-        setPageContent(this);
+        // Measure the page being left
+        PageLoadMetrics.capture(Selenium.browser());
+        Selenium.browser().get(this.url.getUrl());
+        Selenium.locatorCache().invalidate();
+        this.pageContent = null;
+        this.active = true;
+    }
+
+    /**
+     * Get the content of the page, loading it from the browser on first access.
+     *
+     * @return page content or empty string if page is not active
+     */
+    private String getContent() {
+        if (this.pageContent == null) {
+            this.pageContent = this.active ? loadPageContent() : "";
+        }
+        return this.pageContent;
+    }
+
+    /**
+     * Determines whether content operations are evaluated inside the browser.
+     *
+     * @return true if content is evaluated in the browser otherwise false
+     */
+    private boolean isContentInBrowser() {
+        return CONTENT_IN_BROWSER && this.active;
     }
 
     /**
@@ -99,7 +194,8 @@ public class Page {
      * @return true if empty otherwise false
      */
     public boolean isContentEmpty() {
-        return this.pageContent.isEmpty();
+        if (isContentInBrowser()) return Boolean.TRUE.equals(executeScript(SCRIPT_IS_EMPTY));
+        return getContent().isEmpty();
     }
 
     /**
@@ -110,7 +206,11 @@ public class Page {
      * @return page content matched in the matchGroup of regex or null if no content matched
      */
     public String findContent(Pattern regex, int matchGroup) {
-        Matcher matcher = regex.matcher(this.pageContent);
+        if (isContentInBrowser()) {
+            Object content = executeScript(SCRIPT_FIND, regex.pattern(), toScriptFlags(regex), matchGroup);
+            return content == null ? null : String.valueOf(content);
+        }
+        Matcher matcher = regex.matcher(getContent());
         boolean found = matcher.find();
         if (found) {
             return matcher.group(matchGroup);
@@ -118,6 +218,25 @@ public class Page {
         return null;
     }
 
+    /**
+     * Probes a region of the page content inside the browser.
+     * The pattern is matched against the text of the first element matching the scope selector, or against the
+     * whole body text if no element matches, and only the content of the match group is returned by the browser.
+     * Unlike {@link Page#findContent(Pattern, int)}, the page content is never copied from the browser whatever the
+     * 'PAGE_CONTENT_MODE' property.
+     *
+     * @param scopeSelector CSS selector of the element whose text is searched
+     * @param regex         Pattern, translated to a javascript regular expression
+     * @param matchGroup    Match group to return
+     * @return content matched in the matchGroup of regex or null if no content matched
+     */
+    public String probeContent(String scopeSelector, Pattern regex, int matchGroup) {
+        if (!this.active) return null;
+        Object content = ((JavascriptExecutor) Selenium.browser())
+                .executeScript(SCRIPT_PROBE, scopeSelector, regex.pattern(), toScriptFlags(regex), matchGroup);
+        return content == null ? null : String.valueOf(content);
+    }
+
     /**
      * Determines whether page content contains given text ignoring case sensitivity.
      *
@@ -125,7 +244,8 @@ public class Page {
      * @return true if found otherwise false
      */
     public boolean contentContainsIgnoreCase(String text) {
-        return this.pageContent.toLowerCase().contains(text.toLowerCase());
+        if (isContentInBrowser()) return Boolean.TRUE.equals(executeScript(SCRIPT_CONTAINS_IGNORE_CASE, text));
+        return TextSearch.containsIgnoreCase(getContent(), text);
     }
 
     /**
@@ -135,7 +255,8 @@ public class Page {
      * @return true if found otherwise false
      */
     public boolean contentContains(String text) {
-        return this.pageContent.contains(text);
+        if (isContentInBrowser()) return Boolean.TRUE.equals(executeScript(SCRIPT_CONTAINS, text));
+        return getContent().contains(text);
     }
 
     /**
@@ -145,11 +266,7 @@ public class Page {
      * @return value of query parameter or null if query parameter key is not found in the URL
      */
     public String getQueryParameter(String parameterKey) {
-        HttpUrl currentUrl = HttpUrl.parse(url);
-        if (currentUrl != null) {
-            return currentUrl.queryParameter(parameterKey);
-        }
-        return null;
+        return this.url.getQueryParameter(parameterKey);
     }
 
     /**
@@ -158,11 +275,7 @@ public class Page {
      * @return path segment
      */
     public String getPathSegment() {
-        HttpUrl currentUrl = HttpUrl.parse(url);
-        if (currentUrl != null) {
-            return currentUrl.encodedPath();
-        }
-        return null;
+        return this.url.getPath();
     }
 
     /**
@@ -171,10 +284,6 @@ public class Page {
      * @return base URL string
      */
     public String getBaseUrl() {
-        HttpUrl currentUrl = HttpUrl.parse(url);
-        if (currentUrl != null) {
-            return currentUrl.scheme() + "://" + currentUrl.host();
-        }
-        return null;
+        return this.url.getBaseUrl();
     }
 }
@@ -2,32 +2,64 @@ package com.amazon.test.web.page;
 
 import org.openqa.selenium.InvalidArgumentException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
 /**
- * Enum that represent the type of page.
+ * Class that represent the type of page.
  * Each page in the website have some name and a unique path segment appended to the base url.
- * This enum defines all page types and their corresponding page name and path segments.
- * The information in this enum is used by {@link Page} class to construct the target page URL.
+ * The page types are registered from the 'pages.properties' resource, which maps page names to their path segments.
+ * The information in this class is used by {@link Page} class to construct the target page URL.
+ * <p>
+ * {@link PageType} objects are immutable and the registry is loaded once, so page types are safely shared by
+ * scenarios running in parallel. A page type with another path segment is a new object, see {@link #withPathSegment(String)}.
  */
-public enum PageType {
-    Home(PageType.PAGE_HOME),
-    SignIn(PageType.PAGE_SIGN_IN, "ap/signin");
+public final class PageType {
+    private static final String RESOURCE_FILE_NAME = "pages.properties";
+    // Registered page types by page name and by path segment
+    private static final Map<String, PageType> pageTypesByName;
+    private static final Map<String, PageType> pageTypesByPath;
+
+    static {
+        Properties pages = new Properties();
+        try (InputStream resourceInputStream = PageType.class.getClassLoader().getResourceAsStream(RESOURCE_FILE_NAME)) {
+            if (resourceInputStream == null) throw new IllegalStateException("Missing resource " + RESOURCE_FILE_NAME);
+            pages.load(resourceInputStream);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Cannot load " + RESOURCE_FILE_NAME + " : " + exception.getMessage(), exception);
+        }
+        HashMap<String, PageType> byName = new HashMap<>();
+        HashMap<String, PageType> byPath = new HashMap<>();
+        for (String pageName : pages.stringPropertyNames()) {
+            PageType pageType = new PageType(pageName, pages.getProperty(pageName).trim());
+            byName.put(pageName, pageType);
+            byPath.put(pageType.pathSegment, pageType);
+        }
+        pageTypesByName = Collections.unmodifiableMap(byName);
+        pageTypesByPath = Collections.unmodifiableMap(byPath);
+    }
 
     // All page names
     private static final String PAGE_HOME = "Home";
     private static final String PAGE_SIGN_IN = "Sign in";
 
+    // Page types used by the step definitions
+    public static final PageType Home = makeFrom(PAGE_HOME);
+    public static final PageType SignIn = makeFrom(PAGE_SIGN_IN);
+
     // name of the page
     private final String name;
     // unique path segment of page (for url generation)
-    private String pathSegment;
-
-    PageType(String name) {
-        this(name, "");
-    }
+    private final String pathSegment;
 
-    PageType(String name, String pathSegment) {
+    private PageType(String name, String pathSegment) {
         this.name = name;
-        this.pathSegment = pathSegment;
+        this.pathSegment = normalize(pathSegment);
     }
 
     public String getName() {
@@ -38,53 +70,80 @@ public enum PageType {
         return this.pathSegment;
     }
 
-    public void setPathSegment(String pathSegment) {
-        this.pathSegment = pathSegment;
+    /**
+     * Creates a {@link PageType} with the same name and another path segment. This page type is left unchanged.
+     *
+     * @param pathSegment Path segment of the new {@link PageType}
+     * @return new {@link PageType} with pathSegment set
+     */
+    public PageType withPathSegment(String pathSegment) {
+        return new PageType(this.name, pathSegment);
     }
 
     /**
-     * Creates the {@link PageType} enum from page name.
-     * Page name passed must be known by the enum i.e. following values are allowed -
-     * <p>
-     * {@link #PAGE_HOME}
-     * <p>
-     * {@link #PAGE_SIGN_IN}
+     * Get the registered {@link PageType} from page name.
+     * Page name passed must be registered in 'pages.properties'.
      *
      * @param pageName Name of known pages
-     * @return {@link PageType} enum for the given pageName
+     * @return {@link PageType} for the given pageName
      * @throws InvalidArgumentException if pageName is unknown
      */
     public static PageType makeFrom(String pageName) throws InvalidArgumentException {
-        return makeFrom(pageName, null);
+        PageType pageType = pageTypesByName.get(pageName);
+        if (pageType == null) throw new InvalidArgumentException("Invalid page name : " + pageName);
+        return pageType;
     }
 
     /**
-     * Creates the {@link PageType} enum from page name and set its path segment.
-     * Page name passed must be known by the enum i.e. following values are allowed -
-     * <p>
-     * {@link #PAGE_HOME}
-     * <p>
-     * {@link #PAGE_SIGN_IN}
+     * Get the {@link PageType} from page name with the given path segment.
+     * Page name passed must be registered in 'pages.properties'. The registered {@link PageType} is not changed,
+     * a new one is created if pathSegment differs from the registered path segment.
      *
      * @param pageName    Name of known pages
-     * @param pathSegment Path segment to set for the {@link PageType} enum
-     * @return {@link PageType} enum for the given pageName with pathSegment set
+     * @param pathSegment Path segment of the {@link PageType}, or null for the registered path segment
+     * @return {@link PageType} for the given pageName with pathSegment set
      * @throws InvalidArgumentException if pageName is unknown
      */
     public static PageType makeFrom(String pageName, String pathSegment) throws InvalidArgumentException {
-        PageType pageType;
-        switch (pageName) {
-            case PAGE_HOME:
-                pageType = Home;
-                break;
-            case PAGE_SIGN_IN:
-                pageType = SignIn;
-                break;
-            default:
-                throw new InvalidArgumentException("Invalid page name : " + pageName);
-        }
-        if (pathSegment != null)
-            pageType.setPathSegment(pathSegment);
-        return pageType;
+        PageType pageType = makeFrom(pageName);
+        if (pathSegment == null || pageType.pathSegment.equals(normalize(pathSegment))) return pageType;
+        return pageType.withPathSegment(pathSegment);
+    }
+
+    /**
+     * Get the registered {@link PageType} from the path segment of a page, e.g. {@link Page#getPathSegment()}.
+     * Leading and trailing '/' are ignored.
+     *
+     * @param pathSegment path segment of the page
+     * @return registered {@link PageType} or null if no page type is registered for the path segment
+     */
+    public static PageType findByPathSegment(String pathSegment) {
+        return pageTypesByPath.get(normalize(pathSegment));
+    }
+
+    private static String normalize(String pathSegment) {
+        int start = 0;
+        int end = pathSegment.length();
+        while (start < end && pathSegment.charAt(start) == '/') start++;
+        while (end > start && pathSegment.charAt(end - 1) == '/') end--;
+        return pathSegment.substring(start, end);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof PageType)) return false;
+        PageType pageType = (PageType) other;
+        return this.name.equals(pageType.name) && this.pathSegment.equals(pageType.pathSegment);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.name, this.pathSegment);
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
     }
 }
@@ -0,0 +1,131 @@
+package com.amazon.test.web.page;
+
+import okhttp3.HttpUrl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, parsed representation of a {@link Page} URL.
+ * The URL is parsed once when the model is created and its parts are precomputed, so reading them is free.
+ * Base URLs are interned, so base URLs of two models can be compared by reference.
+ * A malformed URL results in a model whose parts are null.
+ */
+public final class PageUrl {
+    // Interned base URLs, the set of base URLs visited by the scenarios is small
+    private static final ConcurrentHashMap<String, String> baseUrls = new ConcurrentHashMap<>();
+
+    private final String url;
+    private final String baseUrl;
+    private final String path;
+    private final Map<String, String> queryParameters;
+
+    /**
+     * Parses the given URL.
+     *
+     * @param url URL to parse
+     * @return parsed URL model
+     */
+    public static PageUrl parse(String url) {
+        return new PageUrl(url, HttpUrl.parse(url));
+    }
+
+    /**
+     * Creates the model from an already parsed URL.
+     *
+     * @param httpUrl parsed URL
+     * @return parsed URL model
+     */
+    static PageUrl of(HttpUrl httpUrl) {
+        return new PageUrl(httpUrl.toString(), httpUrl);
+    }
+
+    private PageUrl(String url, HttpUrl httpUrl) {
+        this.url = url;
+        if (httpUrl == null) {
+            this.baseUrl = null;
+            this.path = null;
+            this.queryParameters = Collections.emptyMap();
+            return;
+        }
+        this.baseUrl = internBaseUrl(httpUrl.scheme() + "://" + httpUrl.host());
+        this.path = httpUrl.encodedPath();
+        int querySize = httpUrl.querySize();
+        if (querySize == 0) {
+            this.queryParameters = Collections.emptyMap();
+        } else {
+            HashMap<String, String> parameters = new HashMap<>(querySize * 2);
+            for (int i = 0; i < querySize; i++) {
+                // Keep the first value of a repeated parameter, as HttpUrl#queryParameter does
+                parameters.putIfAbsent(httpUrl.queryParameterName(i), httpUrl.queryParameterValue(i));
+            }
+            this.queryParameters = Collections.unmodifiableMap(parameters);
+        }
+    }
+
+    private static String internBaseUrl(String baseUrl) {
+        String interned = baseUrls.putIfAbsent(baseUrl, baseUrl);
+        return interned == null ? baseUrl : interned;
+    }
+
+    public String getUrl() {
+        return this.url;
+    }
+
+    /**
+     * Get the interned base URL consisting of scheme and host.
+     *
+     * @return base URL or null if URL is malformed
+     */
+    public String getBaseUrl() {
+        return this.baseUrl;
+    }
+
+    /**
+     * Get the encoded path of the URL.
+     *
+     * @return path or null if URL is malformed
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Get the value of a query parameter.
+     *
+     * @param parameterKey query parameter key
+     * @return value of query parameter or null if query parameter key is not found in the URL
+     */
+    public String getQueryParameter(String parameterKey) {
+        return this.queryParameters.get(parameterKey);
+    }
+
+    /**
+     * Determines whether both URLs have the same base URL.
+     *
+     * @param other URL to compare with
+     * @return true if base URLs are same otherwise false
+     */
+    public boolean hasSameBaseUrl(PageUrl other) {
+        return this.baseUrl != null && this.baseUrl == other.baseUrl;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof PageUrl)) return false;
+        return this.url.equals(((PageUrl) other).url);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.url.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.url;
+    }
+}
@@ -0,0 +1,89 @@
+package com.amazon.test.web.page;
+
+import com.amazon.test.util.Log;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Waits for the currently active {@link Page} to reach an expected state.
+ * The condition is polled with an adaptive backoff - polling starts fast so that quick transitions are detected
+ * almost immediately and the interval doubles up to a maximum so that slow transitions do not flood the browser
+ * with commands. The duration of each wait is logged and available through {@link PageWait#getLastWaitMillis()}.
+ */
+public class PageWait {
+    private static final Logger logger = Logger.getLogger(PageWait.class.getCanonicalName());
+    private static final long INITIAL_POLL_INTERVAL_MILLIS = 25;
+    private static final long MAX_POLL_INTERVAL_MILLIS = 500;
+
+    private final long timeoutMillis;
+    private long lastWaitMillis;
+
+    /**
+     * Constructs a {@link PageWait}.
+     *
+     * @param timeoutMillis maximum time to wait for a condition
+     */
+    public PageWait(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Get the time taken by the last wait.
+     *
+     * @return duration of the last wait in milliseconds
+     */
+    public long getLastWaitMillis() {
+        return this.lastWaitMillis;
+    }
+
+    /**
+     * Waits until the URL path of the currently visited page matches the path of the expected {@link Page}.
+     *
+     * @param expectedPage page expected to become active
+     * @return true if the path matched within the timeout otherwise false
+     */
+    public boolean untilPathMatches(Page expectedPage) {
+        String expectedPath = expectedPage.getPathSegment();
+        return until("path " + expectedPath, () -> expectedPath.equals(new Page(Page.currentUrl()).getPathSegment()));
+    }
+
+    /**
+     * Waits until the given condition holds.
+     * Browser errors raised while evaluating the condition, for example while the page is being replaced,
+     * are treated as the condition not holding yet.
+     *
+     * @param description description of the condition for logging
+     * @param condition   condition to wait for
+     * @return true if the condition holds within the timeout otherwise false
+     */
+    public boolean until(String description, BooleanSupplier condition) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long pollIntervalMillis = INITIAL_POLL_INTERVAL_MILLIS;
+        boolean satisfied = false;
+        try {
+            while (true) {
+                try {
+                    if (condition.getAsBoolean()) {
+                        satisfied = true;
+                        break;
+                    }
+                } catch (WebDriverException exception) {
+                    Log.debug(logger, "Condition '{}' not evaluated : {}", description, exception.getMessage());
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                if (remainingMillis <= 0) break;
+                Thread.sleep(Math.min(pollIntervalMillis, remainingMillis));
+                pollIntervalMillis = Math.min(pollIntervalMillis * 2, MAX_POLL_INTERVAL_MILLIS);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.lastWaitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        Log.debug(logger, "Waited {} ms for {}{}", lastWaitMillis, description, satisfied ? "" : " (timed out)");
+        return satisfied;
+    }
+}
@@ -0,0 +1,81 @@
+package com.amazon.test.web.ui;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Css selector template containing one or more '&lt;id&gt;' placeholders for the id of the target element,
+ * for example "select#&lt;id&gt;".
+ * The template is split around the placeholders once when it is compiled, so rendering a selector only
+ * concatenates the parts. Rendered {@link By} locators are memoized per id, as ids used by the web ui
+ * components come from a fixed set, namely the {@link com.amazon.test.util.Field} ids and the
+ * {@link com.amazon.test.web.ProductSearch} field ids.
+ */
+public final class SelectorTemplate {
+    private static final String PLACEHOLDER_ID = "<id>";
+
+    // Literal parts of the template, a placeholder goes between two consecutive parts
+    private final String[] parts;
+    private final int literalLength;
+    private final ConcurrentHashMap<String, By> locators = new ConcurrentHashMap<>();
+
+    private SelectorTemplate(String[] parts) {
+        this.parts = parts;
+        int length = 0;
+        for (String part : parts) {
+            length += part.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compiles a selector template.
+     *
+     * @param template selector template with '&lt;id&gt;' placeholders
+     * @return compiled {@link SelectorTemplate}
+     */
+    public static SelectorTemplate compile(String template) {
+        ArrayList<String> parts = new ArrayList<>();
+        int start = 0;
+        int placeholderIndex;
+        while ((placeholderIndex = template.indexOf(PLACEHOLDER_ID, start)) >= 0) {
+            parts.add(template.substring(start, placeholderIndex));
+            start = placeholderIndex + PLACEHOLDER_ID.length();
+        }
+        parts.add(template.substring(start));
+        return new SelectorTemplate(parts.toArray(new String[0]));
+    }
+
+    /**
+     * Renders the selector for the given id.
+     *
+     * @param id id of the target element
+     * @return css selector
+     */
+    public String render(String id) {
+        StringBuilder selector = new StringBuilder(literalLength + (parts.length - 1) * id.length());
+        selector.append(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            selector.append(id).append(parts[i]);
+        }
+        return selector.toString();
+    }
+
+    /**
+     * Get the {@link By} locator for the given id. Locators are rendered once per id.
+     *
+     * @param id id of the target element
+     * @return css selector locator
+     */
+    public By locator(String id) {
+        By locator = locators.get(id);
+        if (locator == null) {
+            locator = By.cssSelector(render(id));
+            By existing = locators.putIfAbsent(id, locator);
+            if (existing != null) locator = existing;
+        }
+        return locator;
+    }
+}
@@ -1,7 +1,10 @@
 package com.amazon.test.web.ui;
 
+import com.amazon.test.ProjectProperties;
 import com.amazon.test.Selenium;
+import com.amazon.test.metrics.PageLoadMetrics;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 
@@ -11,11 +14,32 @@ import java.util.List;
  * Represents a button presents on the webpage.
  * This class finds a button through button label and
  * it provides methods to perform various button interactions.
+ * <p>
+ * By default the button is looked up by a script executed in the browser, which normalizes and matches the labels
+ * of all candidate buttons in a single WebDriver command. Setting the 'BUTTON_LOOKUP' property to 'driver' switches
+ * to the lookup which reads the label of each candidate button through separate WebDriver commands.
  */
 public class WebButton {
     private static final String CLASS_BUTTON_CONTAINER = "a-button-inner";
     private static final String SELECTOR_INNER_BUTTON = "input[type=submit]";
     private static final String SELECTOR_ALL_BUTTONS = "button, a[class*=\"button\"]," + "." + CLASS_BUTTON_CONTAINER + ",input[type=submit][value]:not([value=\"\"]),input[type=button][value]:not([value=\"\"])";
+    private static final String KEY_BUTTON_LOOKUP = "BUTTON_LOOKUP";
+    private static final String BUTTON_LOOKUP_DRIVER = "driver";
+    private static final boolean LOOKUP_IN_BROWSER = !BUTTON_LOOKUP_DRIVER.equalsIgnoreCase(ProjectProperties.getProperty(KEY_BUTTON_LOOKUP, null));
+    // Browser side equivalent of findButtonElement(WebElement) and getAlphaLabel(String).
+    // Arguments - root element (or null for body), candidate buttons selector, label, button container class, inner button selector
+    private static final String SCRIPT_FIND_BUTTON = "var root = arguments[0] || document.body;"
+            + "if (!root) return null;"
+            + "var buttons = root.querySelectorAll(arguments[1]);"
+            + "for (var i = 0; i < buttons.length; i++) {"
+            + "  var button = buttons[i];"
+            + "  var label = button.tagName.toLowerCase() === 'input' ? button.value : button.innerText;"
+            + "  if (label == null || label.replace(/\\W/g, ' ').replace(/\\s{2,}/g, ' ').trim() !== arguments[2]) continue;"
+            + "  if ((button.getAttribute('class') || '').indexOf(arguments[3]) < 0) return button;"
+            + "  var innerButton = button.querySelector(arguments[4]);"
+            + "  if (innerButton) return innerButton;"
+            + "}"
+            + "return null;";
 
     // Button label
     private final String label;
@@ -25,6 +49,7 @@ public class WebButton {
     }
 
     private WebElement findButtonElement() {
+        if (LOOKUP_IN_BROWSER) return findButtonElementInBrowser(null);
         try {
             return findButtonElement(Selenium.browser().findElement(By.tagName("body")));
         } catch (NoSuchElementException exception) {
@@ -39,6 +64,7 @@ public class WebButton {
      * @return {@link WebElement} object for button or null if button is not found
      */
     private WebElement findButtonElement(WebElement rootElement) {
+        if (LOOKUP_IN_BROWSER) return findButtonElementInBrowser(rootElement);
         List<WebElement> allButtonElements = rootElement.findElements(By.cssSelector(SELECTOR_ALL_BUTTONS));
         WebElement targetButton = null;
         for (WebElement buttonElement : allButtonElements) {
@@ -66,13 +92,27 @@ public class WebButton {
         return targetButton;
     }
 
+    /**
+     * Finds button {@link WebElement} object in the DOM having button label with a single script execution.
+     * Labels of the candidate buttons are normalized and matched inside the browser, so the lookup costs one
+     * WebDriver command however many buttons the page has.
+     *
+     * @param rootElement element in DOM hierarchy where the search for button begins or null to search whole page
+     * @return {@link WebElement} object for button or null if button is not found
+     */
+    private WebElement findButtonElementInBrowser(WebElement rootElement) {
+        Object button = ((JavascriptExecutor) Selenium.browser()).executeScript(SCRIPT_FIND_BUTTON,
+                rootElement, SELECTOR_ALL_BUTTONS, this.label, CLASS_BUTTON_CONTAINER, SELECTOR_INNER_BUTTON);
+        return button instanceof WebElement ? (WebElement) button : null;
+    }
+
     /**
      * Removes special characters and extra spaces from the button label.
      *
      * @param label Original button label
      * @return Label with removed special chars and extra spaces
      */
-    private String getAlphaLabel(String label) {
+    static String getAlphaLabel(String label) {
         return label.replaceAll("\\W", " ")
                 .replaceAll("\\s{2,}", " ")
                 .trim();
@@ -103,7 +143,11 @@ public class WebButton {
         }
 
         if (buttonToPress == null) return false;
+        // Clicking may leave the page, measure it first
+        PageLoadMetrics.capture(Selenium.browser());
         buttonToPress.click();
+        // Clicking a button may load a new page
+        Selenium.locatorCache().invalidate();
         return true;
     }
 }
@@ -1,26 +1,46 @@
 package com.amazon.test.web.ui;
 
 import com.amazon.test.Selenium;
+import com.amazon.test.util.Field;
+import com.amazon.test.util.FormFieldType;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.UnexpectedTagNameException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Represents a form on the webpage.
  * It is used to fill the values in the form fields.
+ * The form element is resolved through the {@link com.amazon.test.web.LocatorCache} of the browser.
  */
 public class WebForm {
-
-    /**
-     * Finds the form element on the page.
-     *
-     * @return {@link WebElement} object for form
-     * @throws NoSuchElementException if form element is not found in DOM
-     */
-    private WebElement findFormElement() throws NoSuchElementException {
-        return Selenium.browser().findElement(By.tagName("form"));
-    }
+    private static final By LOCATOR_FORM = By.tagName("form");
+    // Sets the values of the form fields and dispatches the events of user input.
+    // Arguments - form element, list of [field selector, value, is select field]. Returns null or an error message
+    private static final String SCRIPT_FILL_FORM = "var form = arguments[0], fields = arguments[1];"
+            + "for (var i = 0; i < fields.length; i++) {"
+            + "  var selector = fields[i][0], value = fields[i][1], element = form.querySelector(selector);"
+            + "  if (!element) return 'Cannot locate field ' + selector;"
+            + "  if (fields[i][2]) {"
+            + "    var index = value === '' ? 0 : -1;"
+            + "    for (var j = 0; index < 0 && j < element.options.length; j++) {"
+            + "      if (element.options[j].text.replace(/\\s+/g, ' ').trim() === value) index = j;"
+            + "    }"
+            + "    if (index < 0 || index >= element.options.length) return 'Cannot locate option with text: ' + value;"
+            + "    element.selectedIndex = index;"
+            + "  } else {"
+            // Use the native value setter so that frameworks tracking the value notice the change
+            + "    Object.getOwnPropertyDescriptor(Object.getPrototypeOf(element), 'value').set.call(element, value);"
+            + "    element.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "  }"
+            + "  element.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "}"
+            + "return null;";
 
     /**
      * Set the value in the text field of form.
@@ -30,10 +50,57 @@ public class WebForm {
      * @throws NoSuchElementException if form element or text field is not found in DOM
      */
     public void setText(String textFieldId, String value) throws NoSuchElementException {
-        if (value == null) value = "";
-        WebElement formElement = findFormElement();
+        String text = value == null ? "" : value;
         WebTextBox textBox = new WebTextBox(textFieldId);
-        textBox.setText(formElement, value);
+        Selenium.locatorCache().apply(LOCATOR_FORM, formElement -> {
+            textBox.setText(formElement, text);
+            return null;
+        });
+    }
+
+    /**
+     * Fills the given fields of the form.
+     * The form is resolved once and all fields are set with a single script execution which dispatches the
+     * input and change events of the fields. Fields which {@link Field#requiresKeystrokes()} are typed key by key
+     * afterwards.
+     *
+     * @param values values of the fields to fill, null value sets empty text or selects first option
+     * @throws NoSuchElementException     if form element, a field or an option is not found in DOM
+     * @throws UnexpectedTagNameException if a select box element does not have select tag
+     */
+    public void fill(Map<Field, String> values) throws NoSuchElementException, UnexpectedTagNameException {
+        List<List<Object>> scriptFields = new ArrayList<>();
+        List<Field> typedFields = new ArrayList<>();
+        for (Map.Entry<Field, String> entry : values.entrySet()) {
+            Field field = entry.getKey();
+            String value = entry.getValue() == null ? "" : entry.getValue();
+            if (field.requiresKeystrokes()) {
+                typedFields.add(field);
+            } else if (field.getType() == FormFieldType.SelectField) {
+                scriptFields.add(Arrays.asList(new WebSelectBox(field.getId()).getSelector(), value, true));
+            } else {
+                scriptFields.add(Arrays.asList(new WebTextBox(field.getId()).getSelector(), value, false));
+            }
+        }
+        Selenium.locatorCache().apply(LOCATOR_FORM, formElement -> {
+            if (!scriptFields.isEmpty()) {
+                Object error = ((JavascriptExecutor) Selenium.browser()).executeScript(SCRIPT_FILL_FORM, formElement, scriptFields);
+                if (error != null) throw new NoSuchElementException(String.valueOf(error));
+            }
+            for (Field field : typedFields) {
+                String value = values.get(field) == null ? "" : values.get(field);
+                switch (field.getType()) {
+                    case TextField:
+                        new WebTextBox(field.getId()).setText(formElement, value);
+                        break;
+                    case SelectField:
+                        WebSelectBox selectBox = new WebSelectBox(field.getId());
+                        if (value.isEmpty()) selectBox.selectFirstOption(formElement);
+                        else selectBox.selectOption(formElement, value);
+                }
+            }
+            return null;
+        });
     }
 
     /**
@@ -45,10 +112,12 @@ public class WebForm {
      * @throws UnexpectedTagNameException if select box element does not have select tag
      */
     public void selectOption(String selectFieldId, String value) throws NoSuchElementException, UnexpectedTagNameException {
-        if (value == null) value = "";
-        WebElement formElement = findFormElement();
+        String option = value == null ? "" : value;
         WebSelectBox selectBox = new WebSelectBox(selectFieldId);
-        if (value.isEmpty()) selectBox.selectFirstOption(formElement);
-        else selectBox.selectOption(formElement, value);
+        Selenium.locatorCache().apply(LOCATOR_FORM, formElement -> {
+            if (option.isEmpty()) selectBox.selectFirstOption(formElement);
+            else selectBox.selectOption(formElement, option);
+            return null;
+        });
     }
 }
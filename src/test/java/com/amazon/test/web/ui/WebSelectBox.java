@@ -1,6 +1,5 @@
 package com.amazon.test.web.ui;
 
-import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
@@ -12,7 +11,7 @@ import org.openqa.selenium.support.ui.UnexpectedTagNameException;
  * and provides method to perform various interactions on select box.
  */
 public class WebSelectBox {
-    private static final String SELECTOR_SELECT_BOX = "select#<id>";
+    private static final SelectorTemplate SELECTOR_SELECT_BOX = SelectorTemplate.compile("select#<id>");
 
     // id of the select box
     private final String selectBoxId;
@@ -30,11 +29,19 @@ public class WebSelectBox {
      * @throws UnexpectedTagNameException if select box element in DOM does not have select tag
      */
     private Select findSelectBox(WebElement rootElement) throws NoSuchElementException, UnexpectedTagNameException {
-        String selector = SELECTOR_SELECT_BOX.replaceAll("<id>", selectBoxId);
-        WebElement selectBoxElement = rootElement.findElement(By.cssSelector(selector));
+        WebElement selectBoxElement = rootElement.findElement(SELECTOR_SELECT_BOX.locator(selectBoxId));
         return new Select(selectBoxElement);
     }
 
+    /**
+     * Get the css selector of the select box.
+     *
+     * @return css selector
+     */
+    String getSelector() {
+        return SELECTOR_SELECT_BOX.render(selectBoxId);
+    }
+
     /**
      * This method selects an option in the select box.
      *
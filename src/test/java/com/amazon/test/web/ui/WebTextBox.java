@@ -10,7 +10,7 @@ import org.openqa.selenium.WebElement;
  * and provides methods to set/get values in the text.
  */
 public class WebTextBox {
-    private static final String SELECTOR_TEXT_BOX = "input[type=text]#<id>,textarea#<id>,input[type=search]#<id>,input.a-input-text#<id>";
+    private static final SelectorTemplate SELECTOR_TEXT_BOX = SelectorTemplate.compile("input[type=text]#<id>,textarea#<id>,input[type=search]#<id>,input.a-input-text#<id>");
 
     // id of the text box
     private final String textBoxId;
@@ -27,8 +27,25 @@ public class WebTextBox {
      * @throws NoSuchElementException if text box is not present in the DOM
      */
     private WebElement findTextBoxElement(WebElement rootElement) throws NoSuchElementException {
-        String selector = SELECTOR_TEXT_BOX.replaceAll("<id>", this.textBoxId);
-        return rootElement.findElement(By.cssSelector(selector));
+        return rootElement.findElement(getLocator());
+    }
+
+    /**
+     * Get the locator of the text box.
+     *
+     * @return css selector locator
+     */
+    By getLocator() {
+        return SELECTOR_TEXT_BOX.locator(this.textBoxId);
+    }
+
+    /**
+     * Get the css selector of the text box.
+     *
+     * @return css selector
+     */
+    String getSelector() {
+        return SELECTOR_TEXT_BOX.render(this.textBoxId);
     }
 
     /**
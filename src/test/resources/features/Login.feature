@@ -18,3 +18,10 @@ Feature: User logs in to the account using registered credentials
       | USER_EMAIL | USER_PASSWORD |
     # Actual username and password are stored in the encoded form in project.properties file
     # using USER_EMAIL and USER_PASSWORD keys respectively.
+
+  Scenario: Signed in user stays signed in across pages
+    # The session signed in by the previous scenario is restored if its snapshot is still valid
+    Given user signs in with USER_EMAIL and USER_PASSWORD
+    And user visits Home page
+    And page is loaded
+    Then user is signed in